@@ -0,0 +1,122 @@
+package Benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Functions.BatchGenerator;
+import Functions.GeneratorType;
+import Functions.MazeGenerator;
+import Structures.GridGraph;
+
+// how batch generation scales with threads: makes the same run of seeded mazes (each seed
+// MazeGenerator.nextSeed of the one before) with a new generator per maze on one thread, then
+// through a BatchGenerator on 1, 2, 4, ... threads up to the cores, printing mazes/s, cells/s,
+// the speedup over one batch thread, and whether the mazes came out the same (a checksum over
+// every maze's walls, which does not depend on the order they finish in)
+//
+//   java -cp out:lib/javalib.jar Benchmarks.BatchScaling --size 64 --mazes 20000
+public class BatchScaling {
+  public static void main(String[] args) throws InterruptedException {
+    int size = 32;
+    int mazes = 20000;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int queue = 1024;
+    GeneratorType type = GeneratorType.KRUSKAL;
+    long seed = 1;
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--size":
+          size = Integer.parseInt(args[i + 1]);
+          break;
+        case "--mazes":
+          mazes = Integer.parseInt(args[i + 1]);
+          break;
+        case "--threads":
+          threads = Integer.parseInt(args[i + 1]);
+          break;
+        case "--queue":
+          queue = Integer.parseInt(args[i + 1]);
+          break;
+        case "--generator":
+          type = GeneratorType.parse(args[i + 1]);
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --size 32 --mazes 20000 --threads <cores> --queue 1024"
+                  + " --generator kruskal --seed 1");
+      }
+    }
+
+    System.out.printf("%d %dx%d %s mazes, %d cores, queue of %d%n", mazes, size, size,
+            type.label(), Runtime.getRuntime().availableProcessors(), queue);
+    System.out.printf("%-10s %8s %10s %12s %14s %9s %10s%n", "engine", "threads", "ms",
+            "mazes/s", "cells/s", "speedup", "identical");
+    // a warm up, so the first row is not the one paying for the JIT
+    BatchScaling.batch(type, size, Math.min(mazes, 2000), seed, 1, queue);
+
+    long start = System.nanoTime();
+    long expected = 0;
+    long next = seed;
+    for (int i = 0; i < mazes; i++) {
+      MazeGenerator generator = type.generator();
+      expected += BatchScaling.checksum(next, generator.generate(size, size, next));
+      next = MazeGenerator.nextSeed(next);
+    }
+    BatchScaling.print("fresh", 1, System.nanoTime() - start, mazes, size, 0, true);
+
+    ArrayList<Integer> counts = new ArrayList<Integer>();
+    for (int t = 1; t < threads; t *= 2) {
+      counts.add(t);
+    }
+    counts.add(threads);
+    long single = 0;
+    for (int t : counts) {
+      start = System.nanoTime();
+      long sum = BatchScaling.batch(type, size, mazes, seed, t, queue);
+      long nanos = System.nanoTime() - start;
+      if (t == 1) {
+        single = nanos;
+      }
+      BatchScaling.print("batch", t, nanos, mazes, size, (double) single / nanos,
+              sum == expected);
+    }
+  }
+
+  // makes the mazes on a batch of threads, returns the checksum of them all
+  private static long batch(GeneratorType type, int size, int mazes, long seed, int threads,
+                            int queue) throws InterruptedException {
+    AtomicLong sum = new AtomicLong();
+    try (BatchGenerator batch = new BatchGenerator(threads, queue,
+        (job, maze) -> sum.addAndGet(BatchScaling.checksum(job.seed, maze)))) {
+      long next = seed;
+      for (int i = 0; i < mazes; i++) {
+        batch.submit(new BatchGenerator.Job(type, size, size, next));
+        next = MazeGenerator.nextSeed(next);
+      }
+    }
+    return sum.get();
+  }
+
+  // a checksum of a maze's walls and seed
+  private static long checksum(long seed, GridGraph maze) {
+    long h = seed;
+    for (int cell = 0; cell < maze.size(); cell++) {
+      h = h * 31 + (maze.isOpenEast(cell) ? 1 : 0) + (maze.isOpenSouth(cell) ? 2 : 0);
+    }
+    return h;
+  }
+
+  // prints one line of the table
+  private static void print(String engine, int threads, long nanos, int mazes, int size,
+                            double speedup, boolean identical) {
+    System.out.printf("%-10s %8d %10.1f %12.0f %14.0f %9s %10s%n", engine, threads, nanos / 1e6,
+            mazes * 1e9 / nanos, (double) mazes * size * size * 1e9 / nanos,
+            speedup == 0 ? "-" : String.format("%.2f", speedup), identical ? "yes" : "NO");
+  }
+}
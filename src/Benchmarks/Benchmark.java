@@ -0,0 +1,18 @@
+package Benchmarks;
+
+// an operation measured by MazeBenchmarks
+interface Benchmark {
+  // the name used in reports and by --only
+  String name();
+
+  // builds whatever the operation needs for an r x c maze, not timed
+  void setup(int r, int c);
+
+  // runs before every measured call, not timed
+  // used by operations that consume their input (e.g. knocking down walls)
+  void prepare();
+
+  // the measured operation
+  // returns something computed from the work so the JIT cannot throw it away
+  long run();
+}
@@ -0,0 +1,89 @@
+package Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import Functions.ChunkedSolver;
+import Functions.EllerGenerator;
+import Structures.ChunkStore;
+
+// how the size of a ChunkStore's cache shows in generating and solving a maze that does not
+// fit in it: for each budget, streams one seeded eller maze into a chunk store, then solves it
+// corner to corner breadth first and depth first, printing per step the time, the cache hit
+// rate, the chunks paged in, the mean and longest page-in, and the evictions and write-backs
+// the file is deleted afterwards
+//
+//   java -cp out:lib/javalib.jar Benchmarks.ChunkedBenchmark --rows 8192 --cols 8192 --budgets 1,4,16,64
+public class ChunkedBenchmark {
+  public static void main(String[] args) throws IOException {
+    int rows = 4096;
+    int cols = 4096;
+    int side = 256;
+    long seed = 1;
+    String[] budgets = {"1", "4", "16", "64"};
+    Path path = Paths.get("benchmark.chunks");
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--rows":
+          rows = Integer.parseInt(args[i + 1]);
+          break;
+        case "--cols":
+          cols = Integer.parseInt(args[i + 1]);
+          break;
+        case "--chunk":
+          side = Integer.parseInt(args[i + 1]);
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        case "--budgets":
+          budgets = args[i + 1].split(",");
+          break;
+        case "--file":
+          path = Paths.get(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --rows 4096 --cols 4096 --chunk 256 --seed 1 --budgets 1,4,16,64"
+                  + " (MB) --file benchmark.chunks");
+      }
+    }
+    System.out.printf("%dx%d maze in %dx%d chunks%n", rows, cols, side, side);
+    System.out.printf("%-8s %-8s %10s %9s %10s %12s %12s %10s %11s%n", "MB", "step", "ms",
+            "hit %", "page-ins", "page-in us", "max us", "evictions", "write-backs");
+    for (String budget : budgets) {
+      long bytes = Long.parseLong(budget) * 1048576L;
+      try (ChunkStore store = ChunkStore.create(path, rows, cols, side, seed, "eller", bytes)) {
+        long start = System.nanoTime();
+        new EllerGenerator(cols, seed).generate(rows, store::row);
+        store.flush();
+        ChunkedBenchmark.print(budget, "generate", System.nanoTime() - start, store);
+
+        ChunkedSolver solver = new ChunkedSolver(store);
+        store.resetStats();
+        start = System.nanoTime();
+        solver.bfs(0, 0, cols - 1, rows - 1);
+        ChunkedBenchmark.print(budget, "bfs", System.nanoTime() - start, store);
+
+        store.resetStats();
+        start = System.nanoTime();
+        solver.dfs(0, 0, cols - 1, rows - 1);
+        ChunkedBenchmark.print(budget, "dfs", System.nanoTime() - start, store);
+      }
+    }
+    Files.delete(path);
+  }
+
+  // prints one line of the table
+  private static void print(String budget, String step, long nanos, ChunkStore store) {
+    System.out.printf("%-8s %-8s %10.1f %9.2f %10d %12.1f %12.1f %10d %11d%n", budget, step,
+            nanos / 1e6, 100 * store.hitRate(), store.misses(),
+            store.averagePageInNanos() / 1e3, store.maxPageInNanos() / 1e3, store.evictions(),
+            store.writeBacks());
+  }
+}
@@ -0,0 +1,92 @@
+package Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+import Functions.EllerGenerator;
+import Functions.MazeSolver;
+import Functions.SearchStrategy;
+import Maze.MazeExporter;
+import Structures.GridGraph;
+
+// what drawing a maze to a file costs: generates one seeded eller maze, solves it corner to
+// corner, then writes it as a PNG at each compression level on 1, 2, 4, ... threads, and as an
+// SVG, printing the time, megapixels per second, file size and heap in use after each
+// the files are deleted afterwards
+//
+//   java -cp out:lib/javalib.jar Benchmarks.ExportBenchmark --size 4000 --threads 8 --levels 1,6
+public class ExportBenchmark {
+  public static void main(String[] args) throws IOException {
+    int size = 2000;
+    int cellSize = 11;
+    int maxThreads = Runtime.getRuntime().availableProcessors();
+    String[] levels = {"1", "6"};
+    long seed = 1;
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--size":
+          size = Integer.parseInt(args[i + 1]);
+          break;
+        case "--cell-size":
+          cellSize = Integer.parseInt(args[i + 1]);
+          break;
+        case "--threads":
+          maxThreads = Integer.parseInt(args[i + 1]);
+          break;
+        case "--levels":
+          levels = args[i + 1].split(",");
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --size 2000 --cell-size 11 --threads N --levels 1,6 --seed 1");
+      }
+    }
+    GridGraph grid = EllerGenerator.generate(size, size, seed);
+    int[] path = new MazeSolver(grid).solve(0, grid.size() - 1, SearchStrategy.BFS).path;
+    MazeExporter exporter = new MazeExporter(grid, path, cellSize);
+    double megapixels = (double) exporter.width() * exporter.height() / 1e6;
+    System.out.printf("%dx%d maze, %dx%d pixels, path %d%n", size, size, exporter.width(),
+            exporter.height(), path.length);
+    System.out.printf("%-6s %6s %8s %10s %12s %14s %10s%n", "format", "level", "threads", "ms",
+            "Mpixels/s", "bytes", "heap MB");
+
+    Path png = Paths.get("benchmark.png");
+    for (String level : levels) {
+      for (int threads = 1; threads <= maxThreads; threads *= 2) {
+        ForkJoinPool pool = threads == 1 ? null : new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        long bytes = exporter.png(png, pool, Integer.parseInt(level));
+        ExportBenchmark.print("png", level, threads, System.nanoTime() - start, megapixels,
+                bytes);
+        if (pool != null) {
+          pool.shutdown();
+        }
+      }
+    }
+    Files.delete(png);
+
+    Path svg = Paths.get("benchmark.svg");
+    long start = System.nanoTime();
+    long bytes = exporter.svg(svg);
+    ExportBenchmark.print("svg", "-", 1, System.nanoTime() - start, megapixels, bytes);
+    Files.delete(svg);
+  }
+
+  // prints one line of the table
+  private static void print(String format, String level, int threads, long nanos,
+                            double megapixels, long bytes) {
+    Runtime runtime = Runtime.getRuntime();
+    System.out.printf("%-6s %6s %8d %10.1f %12.1f %14d %10d%n", format, level, threads,
+            nanos / 1e6, megapixels * 1e9 / nanos, bytes,
+            (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+  }
+}
@@ -0,0 +1,158 @@
+package Benchmarks;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import Structures.Edge;
+import Structures.Vertex;
+import javalib.worldimages.Posn;
+
+// shows how Vertex and Edge hash codes spread over HashMap buckets on a large grid,
+// and what a lookup costs, next to the formulas they replaced
+// "equal found" looks up a different but equal key for every key (a reversed edge,
+// a vertex at the same posn); anything under 100% breaks the equals/hashCode contract
+// the default 1024x1024 grid has 1M+ cells and 2M+ edges
+//
+//   java -cp out:lib/javalib.jar Benchmarks.HashBenchmark --size 1024
+public class HashBenchmark {
+  public static void main(String[] args) {
+    int size = 1024;
+    if (args.length == 2 && args[0].equals("--size")) {
+      size = Integer.parseInt(args[1]);
+    } else if (args.length != 0) {
+      throw new IllegalArgumentException("\nOptions: --size <rows and columns of the grid>");
+    }
+
+    ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+    ArrayList<Vertex> vertexCopies = new ArrayList<Vertex>();
+    ArrayList<Vertex> legacyVertices = new ArrayList<Vertex>();
+    ArrayList<Vertex> legacyVertexCopies = new ArrayList<Vertex>();
+    for (int y = 0; y < size; y++) {
+      for (int x = 0; x < size; x++) {
+        vertices.add(new Vertex(new Posn(x, y), Color.LIGHT_GRAY));
+        vertexCopies.add(new Vertex(new Posn(x, y), Color.LIGHT_GRAY));
+        legacyVertices.add(new LegacyVertex(new Posn(x, y), Color.LIGHT_GRAY));
+        legacyVertexCopies.add(new LegacyVertex(new Posn(x, y), Color.LIGHT_GRAY));
+      }
+    }
+    ArrayList<Edge> edges = new ArrayList<Edge>();
+    ArrayList<Edge> reversed = new ArrayList<Edge>();
+    ArrayList<Edge> legacyEdges = new ArrayList<Edge>();
+    ArrayList<Edge> legacyReversed = new ArrayList<Edge>();
+    for (int i = 0; i < vertices.size(); i++) {
+      Vertex v = vertices.get(i);
+      if (i % size != size - 1) {
+        Vertex right = vertices.get(i + 1);
+        edges.add(new Edge(v, right, 0));
+        reversed.add(new Edge(right, v, 0));
+        legacyEdges.add(new LegacyEdge(v, right));
+        legacyReversed.add(new LegacyEdge(right, v));
+      }
+      if (i + size < vertices.size()) {
+        Vertex below = vertices.get(i + size);
+        edges.add(new Edge(v, below, 0));
+        reversed.add(new Edge(below, v, 0));
+        legacyEdges.add(new LegacyEdge(v, below));
+        legacyReversed.add(new LegacyEdge(below, v));
+      }
+    }
+
+    System.out.printf("%-14s %10s %10s %10s %10s %10s %10s %10s %10s %12s%n", "keys", "count",
+            "distinct", "buckets", "empty %", "max chain", "avg chain", "in >8 bins", "ns/lookup",
+            "equal found");
+    HashBenchmark.report("vertex", vertices, vertexCopies);
+    HashBenchmark.report("vertex (old)", legacyVertices, legacyVertexCopies);
+    HashBenchmark.report("edge", edges, reversed);
+    HashBenchmark.report("edge (old)", legacyEdges, legacyReversed);
+  }
+
+  // prints the bucket distribution of the keys in a HashMap-sized table,
+  // the average cost of looking each key up in a real HashMap,
+  // and how many of the equal keys that map finds
+  static <T> void report(String name, ArrayList<T> keys, ArrayList<T> equalKeys) {
+    HashSet<Integer> distinct = new HashSet<Integer>();
+    for (T k : keys) {
+      distinct.add(k.hashCode());
+    }
+
+    // the table size HashMap would grow to, and its bucket spreading
+    int buckets = Integer.highestOneBit(Math.max(1, (int) (keys.size() / 0.75f)) * 2 - 1);
+    int[] chains = new int[buckets];
+    for (T k : keys) {
+      int h = k.hashCode();
+      chains[(h ^ (h >>> 16)) & (buckets - 1)]++;
+    }
+    int empty = 0;
+    int max = 0;
+    long inBig = 0;
+    for (int n : chains) {
+      if (n == 0) {
+        empty++;
+      }
+      max = Math.max(max, n);
+      if (n > 8) {
+        inBig += n;
+      }
+    }
+    double avgChain = (double) keys.size() / (buckets - empty);
+
+    HashMap<T, T> map = new HashMap<T, T>();
+    for (T k : keys) {
+      map.put(k, k);
+    }
+    ArrayList<T> order = new ArrayList<T>(keys);
+    Collections.shuffle(order, new Random(1));
+    long best = Long.MAX_VALUE;
+    long found = 0;
+    // the best of a few rounds, the first ones warm up the JIT
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      for (T k : order) {
+        if (map.get(k) != null) {
+          found++;
+        }
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+
+    long equalFound = 0;
+    for (T k : equalKeys) {
+      if (map.containsKey(k)) {
+        equalFound++;
+      }
+    }
+
+    System.out.printf("%-14s %10d %10d %10d %10.1f %10d %10.2f %10d %10.1f %11.1f%%%s%n", name,
+            keys.size(), distinct.size(), buckets, 100.0 * empty / buckets, max, avgChain, inBig,
+            (double) best / keys.size(), 100.0 * equalFound / equalKeys.size(),
+            found == 5L * keys.size() ? "" : "  (missing keys!)");
+  }
+}
+
+// a vertex hashed the way Vertex used to be
+class LegacyVertex extends Vertex {
+  LegacyVertex(Posn p, Color color) {
+    super(p, color);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.p.x * 100000000 + this.p.y * 3;
+  }
+}
+
+// an edge hashed the way Edge used to be
+class LegacyEdge extends Edge {
+  LegacyEdge(Vertex from, Vertex to) {
+    super(from, to, 0);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.from.p.x * 1000000 - this.from.p.x * 13 + this.to.p.x * 90000 + this.to.p.y * 2;
+  }
+}
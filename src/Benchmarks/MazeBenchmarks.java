@@ -0,0 +1,526 @@
+package Benchmarks;
+
+import java.awt.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+import Functions.GeneratorType;
+import Functions.KruskalGenerator;
+import Functions.MazeGenerator;
+import Functions.MazeSolver;
+import Functions.ParallelSolver;
+import Functions.SearchStrategy;
+import Functions.UnionFind;
+import Maze.Maze;
+import Structures.ConcurrentIntQueue;
+import Structures.GridGraph;
+import Structures.ICollection;
+import Structures.IntCollection;
+import Structures.IntQueue;
+import Structures.IntStack;
+import Structures.MQueue;
+import Structures.MStack;
+import Structures.Vertex;
+import javalib.worldimages.Posn;
+
+// benchmark suite for the paths the maze depends on: generation, the spanning tree,
+// drawing and solving, each across a range of grid sizes
+// for every operation and size it reports throughput, allocation (bytes per op and MB/s),
+// garbage collections, and a scaling exponent against the previous size
+// (1.0 means linear in the number of cells, 2.0 quadratic)
+//
+// run with the lib jars on the classpath, e.g.
+//   java -Djava.awt.headless=true -cp out:lib/javalib.jar:lib/tester.jar \
+//       Benchmarks.MazeBenchmarks --sizes 10,100,1000 --only solve
+public class MazeBenchmarks {
+  private int[] sizes = {10, 100, 500, 1000, 2000};
+  private int warmup = 3;
+  private int iterations = 5;
+  private long iterationNanos = 200_000_000L;
+  private String only = "";
+  private final ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+  // reads the options, see usage()
+  MazeBenchmarks(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      String value = i + 1 < args.length ? args[i + 1] : null;
+      if (value == null && !args[i].equals("--help")) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i] + "\n" + usage());
+      }
+      switch (args[i]) {
+        case "--sizes":
+          this.sizes = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+          break;
+        case "--warmup":
+          this.warmup = Integer.parseInt(value);
+          break;
+        case "--iterations":
+          this.iterations = Integer.parseInt(value);
+          break;
+        case "--iteration-ms":
+          this.iterationNanos = Long.parseLong(value) * 1_000_000L;
+          break;
+        case "--only":
+          this.only = value;
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i] + "\n" + usage());
+      }
+      i++;
+    }
+  }
+
+  // describes the command-line options
+  static String usage() {
+    return "Options: --sizes 10,100,500,1000,2000 (square grids)  --warmup 3  --iterations 5"
+            + "  --iteration-ms 200  --only <substring of benchmark names>";
+  }
+
+  public static void main(String[] args) {
+    MazeBenchmarks suite = new MazeBenchmarks(args);
+    suite.add(new VertexMinSpanTree());
+    suite.add(new FilterOutEdges());
+    suite.add(new GridMinSpanTree());
+    for (GeneratorType g : GeneratorType.values()) {
+      suite.add(new Generate(g));
+    }
+    suite.add(new Render());
+    suite.add(new Replay());
+    for (SearchStrategy s : SearchStrategy.values()) {
+      suite.add(new Solve(s));
+    }
+    // the boxed worklists next to the int ones, on their own and driving a search
+    suite.add(new Churn("churn-mqueue", n -> new MQueue<Integer>()));
+    suite.add(new Churn("churn-intqueue", IntQueue::new));
+    suite.add(new Churn("churn-concurrent", ConcurrentIntQueue::new));
+    suite.add(new Churn("churn-mstack", n -> new MStack<Integer>()));
+    suite.add(new Churn("churn-intstack", IntStack::new));
+    suite.add(new SolveWith("solve-bfs-mqueue", n -> new MQueue<Integer>()));
+    suite.add(new SolveWith("solve-bfs-intqueue", IntQueue::new));
+    suite.add(new SolveWith("solve-dfs-mstack", n -> new MStack<Integer>()));
+    suite.add(new SolveWith("solve-dfs-intstack", IntStack::new));
+    suite.add(new SolveParallel());
+    suite.run();
+  }
+
+  // adds a benchmark to the suite
+  void add(Benchmark b) {
+    this.benchmarks.add(b);
+  }
+
+  // runs every selected benchmark at every size, printing a table
+  void run() {
+    System.out.printf("%-24s %11s %12s %12s %10s %14s %10s %8s %8s %8s%n", "benchmark", "size",
+            "ops/s", "ms/op", "ns/cell", "alloc B/op", "alloc MB/s", "gc", "gc ms", "scaling");
+    for (Benchmark b : this.benchmarks) {
+      if (!b.name().contains(this.only)) {
+        continue;
+      }
+      double previousNanos = 0;
+      long previousCells = 0;
+      for (int size : this.sizes) {
+        b.setup(size, size);
+        for (int i = 0; i < this.warmup; i++) {
+          this.iteration(b);
+        }
+        Measurement total = new Measurement();
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        for (int i = 0; i < this.iterations; i++) {
+          total.add(this.iteration(b));
+        }
+        gcCount = gcCount() - gcCount;
+        gcMillis = gcMillis() - gcMillis;
+
+        long cells = (long) size * size;
+        double nanosPerOp = (double) total.nanos / total.ops;
+        String scaling = previousCells == 0 ? "-" : String.format("%.2f",
+                Math.log(nanosPerOp / previousNanos) / Math.log((double) cells / previousCells));
+        System.out.printf("%-24s %11s %12.2f %12.3f %10.2f %14d %10.1f %8d %8d %8s%n", b.name(),
+                size + "x" + size, 1e9 / nanosPerOp, nanosPerOp / 1e6, nanosPerOp / cells,
+                total.bytes / total.ops, total.bytes / 1e6 / (total.nanos / 1e9), gcCount,
+                gcMillis, scaling);
+        previousNanos = nanosPerOp;
+        previousCells = cells;
+      }
+    }
+  }
+
+  // calls the benchmark until the iteration time is used up (at least once),
+  // timing and counting allocations around run only
+  private Measurement iteration(Benchmark b) {
+    Measurement m = new Measurement();
+    long sink = 0;
+    while (m.nanos < this.iterationNanos || m.ops == 0) {
+      b.prepare();
+      long bytes = allocatedBytes();
+      long start = System.nanoTime();
+      sink += b.run();
+      m.nanos += System.nanoTime() - start;
+      m.bytes += allocatedBytes() - bytes;
+      m.ops++;
+    }
+    m.sink = sink;
+    return m;
+  }
+
+  // bytes allocated so far by this thread
+  static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  // collections so far across all collectors
+  static long gcCount() {
+    long n = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      n += Math.max(0, gc.getCollectionCount());
+    }
+    return n;
+  }
+
+  // time spent collecting so far across all collectors
+  static long gcMillis() {
+    long n = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      n += Math.max(0, gc.getCollectionTime());
+    }
+    return n;
+  }
+}
+
+// time, allocation and call count accumulated over one or more iterations
+class Measurement {
+  long nanos;
+  long bytes;
+  long ops;
+  long sink;
+
+  // adds another measurement into this one
+  void add(Measurement m) {
+    this.nanos += m.nanos;
+    this.bytes += m.bytes;
+    this.ops += m.ops;
+    this.sink += m.sink;
+  }
+}
+
+// UnionFind.minSpanTree over a board of Vertex objects with random weights
+class VertexMinSpanTree implements Benchmark {
+  private ArrayList<Vertex> board;
+
+  public String name() {
+    return "mst-vertex";
+  }
+
+  public void setup(int r, int c) {
+    this.board = VertexMinSpanTree.board(r, c);
+  }
+
+  // an r x c board of vertices with random weights, built the way createBoard used to
+  static ArrayList<Vertex> board(int r, int c) {
+    Random rand = new Random(r * 31L + c);
+    ArrayList<Vertex> board = new ArrayList<Vertex>(r * c);
+    for (int i = 0; i < r; i++) {
+      for (int j = 0; j < c; j++) {
+        board.add(new Vertex(new Posn(j, i), Color.LIGHT_GRAY));
+      }
+    }
+    for (int i = 0; i < board.size(); i++) {
+      Vertex v = board.get(i);
+      if (v.p.x != 0) {
+        v.addEdge(board.get(i - 1), rand.nextInt(100));
+      }
+      if (v.p.x != c - 1) {
+        v.addEdge(board.get(i + 1), rand.nextInt(100));
+      }
+      if (v.p.y != r - 1) {
+        v.addEdge(board.get(i + c), rand.nextInt(100));
+      }
+      if (v.p.y != 0) {
+        v.addEdge(board.get(i - c), rand.nextInt(100));
+      }
+    }
+    return board;
+  }
+
+  public void prepare() {
+  }
+
+  public long run() {
+    return new UnionFind().minSpanTree(this.board).size();
+  }
+}
+
+// UnionFind.filterOutEdges: keeping only the out edges in the tree, for every vertex
+class FilterOutEdges implements Benchmark {
+  private ArrayList<Vertex> board;
+  private UnionFind uf;
+
+  public String name() {
+    return "filter-vertex";
+  }
+
+  public void setup(int r, int c) {
+    this.board = VertexMinSpanTree.board(r, c);
+    this.uf = new UnionFind();
+    this.uf.minSpanTree(this.board);
+  }
+
+  public void prepare() {
+    for (Vertex v : this.board) {
+      v.outEdgesInTree.clear();
+    }
+  }
+
+  public long run() {
+    this.uf.filterOutEdges(this.board);
+    return this.board.get(0).outEdgesInTree.size();
+  }
+}
+
+// UnionFind.minSpanTree over a GridGraph, which knocks down walls and so needs a fresh grid
+class GridMinSpanTree implements Benchmark {
+  private int r;
+  private int c;
+  private byte[] weights;
+  private GridGraph grid;
+
+  public String name() {
+    return "mst-grid";
+  }
+
+  public void setup(int r, int c) {
+    Random rand = new Random(r * 31L + c);
+    this.r = r;
+    this.c = c;
+    this.weights = new byte[r * c * 2];
+    for (int e = 0; e < this.weights.length; e++) {
+      this.weights[e] = (byte) rand.nextInt(100);
+    }
+  }
+
+  public void prepare() {
+    this.grid = new GridGraph(this.r, this.c);
+    for (int e = 0; e < this.weights.length; e++) {
+      if (this.grid.isEdge(e)) {
+        this.grid.setWeight(e, this.weights[e]);
+      }
+    }
+  }
+
+  public long run() {
+    return new UnionFind().minSpanTree(this.grid);
+  }
+}
+
+// generating a maze with one algorithm, e.g. generate-kruskal: random weights plus the
+// spanning tree (what createBoard used to do)
+class Generate implements Benchmark {
+  private final GeneratorType type;
+  private final MazeGenerator generator;
+  private int r;
+  private int c;
+
+  Generate(GeneratorType type) {
+    this.type = type;
+    this.generator = type.generator();
+  }
+
+  public String name() {
+    return "generate-" + this.type.label();
+  }
+
+  public void setup(int r, int c) {
+    this.r = r;
+    this.c = c;
+  }
+
+  public void prepare() {
+  }
+
+  public long run() {
+    return this.generator.generate(this.r, this.c, this.r * 31L + this.c).size();
+  }
+}
+
+// drawing a generated maze: the Maze view's drawCells and drawWalls
+class Render implements Benchmark {
+  private GridGraph grid;
+
+  public String name() {
+    return "render";
+  }
+
+  public void setup(int r, int c) {
+    this.grid = new KruskalGenerator().generate(r, c, r * 31L + c);
+  }
+
+  public void prepare() {
+  }
+
+  public long run() {
+    return new Maze(this.grid).c;
+  }
+}
+
+// animating a breadth first search and its path on a drawn maze, tick by tick,
+// as fast as the speed keys allow, so the bytes per op are what the animation allocates
+class Replay implements Benchmark {
+  private GridGraph grid;
+  private Maze maze;
+
+  public String name() {
+    return "replay";
+  }
+
+  public void setup(int r, int c) {
+    this.grid = new KruskalGenerator().generate(r, c, r * 31L + c);
+  }
+
+  public void prepare() {
+    this.maze = new Maze(this.grid);
+    for (int i = 0; i < 20; i++) {
+      this.maze.onKeyEvent("+");
+    }
+  }
+
+  public long run() {
+    this.maze.onKeyEvent("b");
+    // each tick draws up to 1 << 20 cells, and the search and its path are at most
+    // two per cell, which is enough ticks to play the whole animation
+    long ticks = this.grid.size() * 2L / (1 << 20) + 2;
+    long placed = 0;
+    for (long i = 0; i < ticks; i++) {
+      this.maze.onTick();
+      placed += this.maze.makeScene().height;
+    }
+    return placed;
+  }
+}
+
+// a search from the top left to the bottom right with one strategy, run to completion
+class Solve implements Benchmark {
+  private final SearchStrategy strategy;
+  private MazeSolver solver;
+
+  Solve(SearchStrategy strategy) {
+    this.strategy = strategy;
+  }
+
+  public String name() {
+    return "solve-" + this.strategy.name().toLowerCase();
+  }
+
+  public void setup(int r, int c) {
+    this.solver = new MazeSolver(new KruskalGenerator().generate(r, c, r * 31L + c));
+  }
+
+  public void prepare() {
+  }
+
+  public long run() {
+    return this.solver.solve(0, this.solver.getGrid().size() - 1, this.strategy).visited;
+  }
+}
+
+// a worklist on its own: r * c cells in, two added for each one taken out the way a search's
+// frontier grows, then drained. it goes through addInt/removeInt, so only the boxed
+// collections box
+class Churn implements Benchmark {
+  private final String name;
+  // a new worklist with room for a number of cells
+  private final IntFunction<ICollection<Integer>> make;
+  private int cells;
+
+  Churn(String name, IntFunction<ICollection<Integer>> make) {
+    this.name = name;
+    this.make = make;
+  }
+
+  public String name() {
+    return this.name;
+  }
+
+  public void setup(int r, int c) {
+    this.cells = r * c;
+  }
+
+  public void prepare() {
+  }
+
+  public long run() {
+    IntCollection worklist = IntCollection.of(this.make.apply(this.cells));
+    long sum = 0;
+    int next = 0;
+    while (next < this.cells) {
+      worklist.addInt(next++);
+      if (next < this.cells) {
+        worklist.addInt(next++);
+      }
+      sum += worklist.removeInt();
+    }
+    while (!worklist.isEmpty()) {
+      sum += worklist.removeInt();
+    }
+    return sum;
+  }
+}
+
+// a search from the top left to the bottom right with a given worklist
+class SolveWith implements Benchmark {
+  private final String name;
+  private final IntFunction<ICollection<Integer>> make;
+  private MazeSolver solver;
+
+  SolveWith(String name, IntFunction<ICollection<Integer>> make) {
+    this.name = name;
+    this.make = make;
+  }
+
+  public String name() {
+    return this.name;
+  }
+
+  public void setup(int r, int c) {
+    this.solver = new MazeSolver(new KruskalGenerator().generate(r, c, r * 31L + c));
+  }
+
+  public void prepare() {
+  }
+
+  public long run() {
+    int size = this.solver.getGrid().size();
+    return this.solver.solve(0, size - 1, this.make.apply(size)).visited;
+  }
+}
+
+// the same search flooded on every core through a ConcurrentIntQueue
+class SolveParallel implements Benchmark {
+  private final ForkJoinPool pool = new ForkJoinPool();
+  private ParallelSolver solver;
+  private int size;
+
+  public String name() {
+    return "solve-parallel";
+  }
+
+  public void setup(int r, int c) {
+    this.solver = new ParallelSolver(new KruskalGenerator().generate(r, c, r * 31L + c),
+            this.pool);
+    this.size = r * c;
+  }
+
+  public void prepare() {
+  }
+
+  public long run() {
+    return this.solver.solve(0, this.size - 1).visited;
+  }
+}
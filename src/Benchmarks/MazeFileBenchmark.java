@@ -0,0 +1,122 @@
+package Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import Functions.EllerGenerator;
+import Functions.MazeSolver;
+import Functions.SearchResult;
+import Functions.SearchStrategy;
+import Structures.GridGraph;
+import Structures.MazeFile;
+
+// what a maze file costs to write and open, and what reading a mapped maze costs:
+// streams a seeded maze out of EllerGenerator straight into a MazeFile.Writer (so the maze is
+// never on the heap), opens the file, then goes over every cell of the mapped grid counting
+// passages. each step prints its time, throughput and the bytes it allocated
+// mazes up to --solve-cells cells are also generated on the heap, checked to be the same
+// maze, and solved corner to corner both ways, to compare the mapped grid with the heap one
+// the file is deleted afterwards unless --keep is given
+//
+//   java -cp out:lib/javalib.jar Benchmarks.MazeFileBenchmark --rows 32768 --cols 32767
+public class MazeFileBenchmark {
+  public static void main(String[] args) throws IOException {
+    int rows = 2000;
+    int cols = 2000;
+    long seed = 1;
+    long solveCells = 4_000_000;
+    Path path = Paths.get("benchmark.maze");
+    boolean keep = false;
+    for (int i = 0; i < args.length; i += 2) {
+      if (args[i].equals("--keep")) {
+        keep = true;
+        i--;
+        continue;
+      }
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--rows":
+          rows = Integer.parseInt(args[i + 1]);
+          break;
+        case "--cols":
+          cols = Integer.parseInt(args[i + 1]);
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        case "--solve-cells":
+          solveCells = Long.parseLong(args[i + 1]);
+          break;
+        case "--file":
+          path = Paths.get(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --rows 2000 --cols 2000 --seed 1 --solve-cells 4000000"
+                  + " --file benchmark.maze --keep");
+      }
+    }
+    long cells = (long) rows * cols;
+    System.out.printf("%dx%d maze, %d cells, file %d bytes (%.2f bits per cell)%n", rows, cols,
+            cells, MazeFile.bytes(rows, cols), MazeFile.bytes(rows, cols) * 8.0 / cells);
+    System.out.printf("%-10s %12s %14s %14s%n", "step", "ms", "cells/s", "alloc bytes");
+
+    long bytes = MazeBenchmarks.allocatedBytes();
+    long start = System.nanoTime();
+    try (MazeFile.Writer writer = new MazeFile.Writer(path, rows, cols, seed, "eller")) {
+      new EllerGenerator(cols, seed).generate(rows, writer::row);
+    }
+    MazeFileBenchmark.print("write", cells, System.nanoTime() - start,
+            MazeBenchmarks.allocatedBytes() - bytes);
+
+    bytes = MazeBenchmarks.allocatedBytes();
+    start = System.nanoTime();
+    MazeFile file = MazeFile.open(path);
+    MazeFileBenchmark.print("open", cells, System.nanoTime() - start,
+            MazeBenchmarks.allocatedBytes() - bytes);
+
+    GridGraph mapped = file.grid;
+    bytes = MazeBenchmarks.allocatedBytes();
+    start = System.nanoTime();
+    long passages = 0;
+    for (int cell = 0; cell < mapped.size(); cell++) {
+      passages += (mapped.isOpenEast(cell) ? 1 : 0) + (mapped.isOpenSouth(cell) ? 1 : 0);
+    }
+    MazeFileBenchmark.print("scan", cells, System.nanoTime() - start,
+            MazeBenchmarks.allocatedBytes() - bytes);
+    if (passages != cells - 1) {
+      throw new IllegalStateException("Not a perfect maze: " + passages + " passages");
+    }
+
+    if (cells <= solveCells) {
+      GridGraph heap = EllerGenerator.generate(rows, cols, seed);
+      if (!heap.sameWalls(mapped)) {
+        throw new IllegalStateException("The file does not hold the maze it was written from");
+      }
+      // once each to warm up, then timed
+      for (int round = 0; round < 2; round++) {
+        SearchResult onHeap = new MazeSolver(heap).solve(0, heap.size() - 1,
+                SearchStrategy.BFS);
+        SearchResult onFile = new MazeSolver(mapped).solve(0, mapped.size() - 1,
+                SearchStrategy.BFS);
+        if (round == 1) {
+          MazeFileBenchmark.print("bfs heap", cells, onHeap.nanos, 0);
+          MazeFileBenchmark.print("bfs file", cells, onFile.nanos, 0);
+        }
+      }
+    }
+    if (!keep) {
+      Files.delete(path);
+    }
+  }
+
+  // prints one line of the table
+  private static void print(String step, long cells, long nanos, long allocated) {
+    System.out.printf("%-10s %12.1f %14.0f %14d%n", step, nanos / 1e6, cells * 1e9 / nanos,
+            allocated);
+  }
+}
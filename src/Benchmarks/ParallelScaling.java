@@ -0,0 +1,82 @@
+package Benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import Functions.KruskalGenerator;
+import Functions.MazeGenerator;
+import Structures.GridGraph;
+
+// how maze generation scales with threads: generates the same seeded maze with the
+// sequential engine, then with the parallel one on pools of 1, 2, 4, ... threads,
+// printing the best time of each, the speedup over sequential, and whether the maze
+// came out identical to the sequential one (it always should)
+//
+//   java -cp out:lib/javalib.jar Benchmarks.ParallelScaling --size 4000 --threads 32
+public class ParallelScaling {
+  public static void main(String[] args) {
+    int size = 2000;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int runs = 5;
+    long seed = 1;
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--size":
+          size = Integer.parseInt(args[i + 1]);
+          break;
+        case "--threads":
+          threads = Integer.parseInt(args[i + 1]);
+          break;
+        case "--runs":
+          runs = Integer.parseInt(args[i + 1]);
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --size 2000 --threads <cores> --runs 5 --seed 1");
+      }
+    }
+
+    System.out.printf("%dx%d maze, seed %d, best of %d runs%n", size, size, seed, runs);
+    System.out.printf("%-12s %10s %10s %10s %10s%n", "engine", "threads", "ms", "speedup",
+            "identical");
+    GridGraph expected = new KruskalGenerator().generate(size, size, seed);
+    long sequential = ParallelScaling.best(new KruskalGenerator(), size, seed, runs);
+    System.out.printf("%-12s %10d %10.1f %10.2f %10s%n", "sequential", 1, sequential / 1e6, 1.0,
+            "yes");
+
+    ArrayList<Integer> counts = new ArrayList<Integer>();
+    for (int t = 1; t < threads; t *= 2) {
+      counts.add(t);
+    }
+    counts.add(threads);
+    for (int t : counts) {
+      ForkJoinPool pool = new ForkJoinPool(t);
+      try {
+        MazeGenerator generator = new KruskalGenerator(pool);
+        long nanos = ParallelScaling.best(generator, size, seed, runs);
+        boolean identical = generator.generate(size, size, seed).sameWalls(expected);
+        System.out.printf("%-12s %10d %10.1f %10.2f %10s%n", "parallel", t, nanos / 1e6,
+                (double) sequential / nanos, identical ? "yes" : "NO");
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  // the fastest of runs generations, in nanoseconds
+  private static long best(MazeGenerator generator, int size, long seed, int runs) {
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < runs; i++) {
+      long start = System.nanoTime();
+      generator.generate(size, size, seed);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+}
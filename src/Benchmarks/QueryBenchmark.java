@@ -0,0 +1,109 @@
+package Benchmarks;
+
+import java.util.SplittableRandom;
+
+import Functions.CorridorTree;
+import Functions.GeneratorType;
+import Functions.MazeSolver;
+import Functions.SearchStrategy;
+import Structures.GridGraph;
+
+// what building a CorridorTree costs against what it saves per query: for each generator,
+// generates one seeded maze, builds the tree (time, bytes allocated, and how many nodes are
+// left of the cells), then answers the same random start/goal pairs with a BFS per query and
+// with the tree, and prints the time per query, the speedup, after how many queries the
+// tree has paid for itself, and what a distance only query costs on the tree
+//
+//   java -cp out:lib/javalib.jar Benchmarks.QueryBenchmark --size 500 --queries 200
+public class QueryBenchmark {
+  public static void main(String[] args) {
+    int size = 500;
+    int queries = 200;
+    long seed = 1;
+    GeneratorType[] generators = GeneratorType.values();
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--size":
+          size = Integer.parseInt(args[i + 1]);
+          break;
+        case "--queries":
+          queries = Integer.parseInt(args[i + 1]);
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        case "--generator":
+          generators = new GeneratorType[] {GeneratorType.parse(args[i + 1])};
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --size 500 --queries 200 --seed 1 --generator kruskal");
+      }
+    }
+
+    // warm up on a small maze first
+    QueryBenchmark.run(GeneratorType.KRUSKAL, 100, 200, seed, false);
+    System.out.printf("%-14s %10s %10s %12s %12s %12s %10s %12s %12s%n", "generator",
+            "nodes %", "build ms", "build bytes", "bfs us/q", "tree us/q", "speedup",
+            "break-even", "dist ns/q");
+    for (GeneratorType g : generators) {
+      QueryBenchmark.run(g, size, queries, seed, true);
+    }
+  }
+
+  // runs one generator, and prints how it went if asked to
+  private static void run(GeneratorType type, int size, int queries, long seed,
+                          boolean print) {
+    GridGraph grid = type.generator().generate(size, size, seed);
+    long bytes = MazeBenchmarks.allocatedBytes();
+    long start = System.nanoTime();
+    CorridorTree tree = new CorridorTree(grid);
+    long build = System.nanoTime() - start;
+    long allocated = MazeBenchmarks.allocatedBytes() - bytes;
+
+    // the same pairs for both, so the work is the same
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] pairs = new int[queries * 2];
+    for (int i = 0; i < pairs.length; i++) {
+      pairs[i] = random.nextInt(grid.size());
+    }
+
+    MazeSolver solver = new MazeSolver(grid);
+    long steps = 0;
+    start = System.nanoTime();
+    for (int q = 0; q < queries; q++) {
+      steps += solver.solve(pairs[2 * q], pairs[2 * q + 1], SearchStrategy.BFS).path.length;
+    }
+    double bfs = (System.nanoTime() - start) / (double) queries;
+
+    start = System.nanoTime();
+    for (int q = 0; q < queries; q++) {
+      steps -= tree.solve(pairs[2 * q], pairs[2 * q + 1]).path.length;
+    }
+    double contracted = (System.nanoTime() - start) / (double) queries;
+    if (steps != 0) {
+      throw new IllegalStateException("The tree and BFS found paths of different lengths");
+    }
+
+    // distances are too quick to time one pass of, so go over the pairs a few times
+    int rounds = 100;
+    start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      for (int q = 0; q < queries; q++) {
+        steps += tree.distance(pairs[2 * q], pairs[2 * q + 1]);
+      }
+    }
+    double distance = (System.nanoTime() - start) / ((double) queries * rounds);
+
+    if (print) {
+      String breakEven = bfs > contracted ? String.valueOf((long) Math.ceil(build
+              / (bfs - contracted))) : "never";
+      System.out.printf("%-14s %10.1f %10.1f %12d %12.1f %12.1f %9.1fx %12s %12.0f%n",
+              type.label(), 100.0 * tree.nodes() / grid.size(), build / 1e6, allocated,
+              bfs / 1e3, contracted / 1e3, bfs / contracted, breakEven, distance);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package Benchmarks;
+
+import Functions.EllerGenerator;
+import Functions.KruskalGenerator;
+import Functions.MazeGenerator;
+
+// how fast EllerGenerator streams rows, and that its memory does not grow with the height:
+// generates a tall maze into a sink that only counts passages, then prints rows/s,
+// cells/s and the bytes allocated while generating (the rows are never kept)
+// for comparison it also times KruskalGenerator on a grid of the same width, which has
+// to hold every cell, at a height it can manage
+//
+//   java -cp out:lib/javalib.jar Benchmarks.StreamingBenchmark --cols 1000 --rows 1000000
+public class StreamingBenchmark {
+  public static void main(String[] args) {
+    int cols = 1000;
+    int rows = 1_000_000;
+    long seed = 1;
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("\nMissing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--cols":
+          cols = Integer.parseInt(args[i + 1]);
+          break;
+        case "--rows":
+          rows = Integer.parseInt(args[i + 1]);
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --cols 1000 --rows 1000000 --seed 1");
+      }
+    }
+
+    // warm up on a short maze first
+    StreamingBenchmark.eller(cols, Math.min(rows, 10_000), seed, false);
+    System.out.printf("%-10s %14s %12s %14s %16s %14s%n", "engine", "size", "ms", "rows/s",
+            "cells/s", "alloc bytes");
+    StreamingBenchmark.eller(cols, rows, seed, true);
+
+    int kruskalRows = (int) Math.min(rows, Math.max(1, 4_000_000L / cols));
+    MazeGenerator kruskal = new KruskalGenerator();
+    kruskal.generate(kruskalRows, cols, seed);
+    long bytes = MazeBenchmarks.allocatedBytes();
+    long start = System.nanoTime();
+    kruskal.generate(kruskalRows, cols, seed);
+    StreamingBenchmark.print("kruskal", kruskalRows, cols, System.nanoTime() - start,
+            MazeBenchmarks.allocatedBytes() - bytes);
+  }
+
+  // streams a rows x cols maze into a counting sink, and prints how it went if asked to
+  private static void eller(int cols, int rows, long seed, boolean print) {
+    long[] passages = new long[1];
+    long bytes = MazeBenchmarks.allocatedBytes();
+    long start = System.nanoTime();
+    new EllerGenerator(cols, seed).generate(rows, (y, east, south) -> {
+      for (int w = 0; w < east.length; w++) {
+        passages[0] += Long.bitCount(east[w]) + Long.bitCount(south[w]);
+      }
+    });
+    long nanos = System.nanoTime() - start;
+    long allocated = MazeBenchmarks.allocatedBytes() - bytes;
+    if (passages[0] != (long) rows * cols - 1) {
+      throw new IllegalStateException("Not a perfect maze: " + passages[0] + " passages");
+    }
+    if (print) {
+      StreamingBenchmark.print("eller", rows, cols, nanos, allocated);
+    }
+  }
+
+  // prints one line of the table
+  private static void print(String engine, int rows, int cols, long nanos, long allocated) {
+    System.out.printf("%-10s %14s %12.1f %14.0f %16.0f %14d%n", engine, rows + "x" + cols,
+            nanos / 1e6, rows * 1e9 / nanos, (double) rows * cols * 1e9 / nanos, allocated);
+  }
+}
@@ -0,0 +1,38 @@
+package Functions;
+
+import java.util.SplittableRandom;
+
+import Structures.GridGraph;
+
+// generates mazes with the Aldous-Broder algorithm: one random walk over the whole grid,
+// knocking down the wall into every cell the first time it is entered
+// every maze is equally likely, but the walk only ends once it has covered the grid,
+// which takes far more steps than there are cells on big grids
+public class AldousBroderGenerator implements MazeGenerator {
+
+  public AldousBroderGenerator() {
+  }
+
+  // generates an r x c maze, always the same one for the same seed
+  public GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    SplittableRandom rand = new SplittableRandom(seed);
+    boolean[] visited = new boolean[grid.size()];
+    int[] neighbors = new int[4];
+
+    int cell = rand.nextInt(grid.size());
+    visited[cell] = true;
+    int left = grid.size() - 1;
+    while (left > 0) {
+      int n = grid.neighbors(cell, neighbors);
+      int next = neighbors[rand.nextInt(n)];
+      if (!visited[next]) {
+        grid.open(grid.edge(cell, next));
+        visited[next] = true;
+        left--;
+      }
+      cell = next;
+    }
+    return grid.freeze();
+  }
+}
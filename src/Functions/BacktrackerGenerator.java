@@ -0,0 +1,48 @@
+package Functions;
+
+import java.util.SplittableRandom;
+
+import Structures.GridGraph;
+
+// generates mazes with the recursive backtracker: a depth first walk from the top left cell
+// into random unvisited neighbors, backing up when stuck
+// the recursion is an explicit int stack, so even a maze that is one long corridor
+// cannot overflow the call stack
+public class BacktrackerGenerator implements MazeGenerator {
+
+  public BacktrackerGenerator() {
+  }
+
+  // generates an r x c maze, always the same one for the same seed
+  public GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    SplittableRandom rand = new SplittableRandom(seed);
+    boolean[] visited = new boolean[grid.size()];
+    int[] stack = new int[grid.size()];
+    int top = 0;
+    int[] neighbors = new int[4];
+    int[] unvisited = new int[4];
+
+    stack[top++] = 0;
+    visited[0] = true;
+    while (top > 0) {
+      int cell = stack[top - 1];
+      int n = grid.neighbors(cell, neighbors);
+      int open = 0;
+      for (int i = 0; i < n; i++) {
+        if (!visited[neighbors[i]]) {
+          unvisited[open++] = neighbors[i];
+        }
+      }
+      if (open == 0) {
+        top--;
+      } else {
+        int next = unvisited[rand.nextInt(open)];
+        grid.open(grid.edge(cell, next));
+        visited[next] = true;
+        stack[top++] = next;
+      }
+    }
+    return grid.freeze();
+  }
+}
@@ -0,0 +1,148 @@
+package Functions;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import Structures.GridGraph;
+
+// generates many mazes on a fixed set of worker threads, for datasets of millions of small
+// and medium mazes: jobs go into a bounded queue (submit blocks while it is full, so a fast
+// producer never piles up more than capacity jobs), the workers take them off and hand each
+// maze to a sink
+// every worker keeps its own generator of each type for as long as it runs, so the scratch
+// a generator keeps between mazes (KruskalGenerator's disjoint set and edge arrays) is reused
+// by one thread and never shared. the mazes are the same ones each generator makes on its own
+// for the job's seed, whichever worker makes them
+// a job that fails, with an exception or an error, does not stop the others or its worker:
+// the first failure is kept, further submits are refused, and close throws it
+// close throws nothing checked, so a batch can be opened in a try with resources without
+// the try having to handle an interrupt: an interrupted close sets the thread's interrupt
+// flag again and throws an IllegalStateException, and closing again carries on from there
+public class BatchGenerator implements AutoCloseable {
+  // one maze to make
+  public static class Job {
+    public final GeneratorType type;
+    public final int r;
+    public final int c;
+    public final long seed;
+
+    public Job(GeneratorType type, int r, int c, long seed) {
+      this.type = type;
+      this.r = r;
+      this.c = c;
+      this.seed = seed;
+    }
+  }
+
+  // put on the queue once per worker by close, each worker stops when it takes one
+  private static final Job STOP = new Job(GeneratorType.KRUSKAL, 1, 1, 0);
+
+  private final ArrayBlockingQueue<Job> queue;
+  private final Thread[] workers;
+  private final MazeSink sink;
+  private final AtomicLong mazes = new AtomicLong();
+  private final AtomicLong cells = new AtomicLong();
+  private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+  private boolean closed;
+  // how far close got: the STOPs queued and the workers joined
+  private int stopped;
+  private int joined;
+
+  // starts threads workers taking jobs from a queue of at most capacity jobs
+  public BatchGenerator(int threads, int capacity, MazeSink sink) {
+    if (threads < 1 || capacity < 1) {
+      throw new IllegalArgumentException("A batch needs at least 1 thread and room for 1 job, "
+              + "got " + threads + " threads and " + capacity + " jobs");
+    }
+    this.queue = new ArrayBlockingQueue<Job>(capacity);
+    this.sink = sink;
+    this.workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      this.workers[i] = new Thread(this::work, "maze-batch-" + i);
+      // an engine that is never closed does not keep the program running
+      this.workers[i].setDaemon(true);
+      this.workers[i].start();
+    }
+  }
+
+  // queues a job, waiting while the queue is full
+  public void submit(Job job) throws InterruptedException {
+    if (this.closed) {
+      throw new IllegalStateException("The batch has been closed");
+    }
+    Throwable failed = this.failure.get();
+    if (failed != null) {
+      throw new IllegalStateException("Generating a maze failed", failed);
+    }
+    this.queue.put(job);
+  }
+
+  // the mazes made so far, and their cells
+  public long generated() {
+    return this.mazes.get();
+  }
+
+  public long cells() {
+    return this.cells.get();
+  }
+
+  // the number of worker threads
+  public int threads() {
+    return this.workers.length;
+  }
+
+  // waits for every queued job to be done and the workers to stop, then throws the first
+  // failure if there was one
+  @Override
+  public void close() {
+    this.closed = true;
+    try {
+      while (this.stopped < this.workers.length) {
+        this.queue.put(STOP);
+        this.stopped++;
+      }
+      while (this.joined < this.workers.length) {
+        this.workers[this.joined].join();
+        this.joined++;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for the batch to finish", e);
+    }
+    Throwable failed = this.failure.get();
+    if (failed != null) {
+      throw new IllegalStateException("Generating a maze failed", failed);
+    }
+  }
+
+  // a worker: makes the mazes of the jobs it takes until it takes STOP
+  private void work() {
+    MazeGenerator[] generators = new MazeGenerator[GeneratorType.values().length];
+    while (true) {
+      Job job;
+      try {
+        job = this.queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (job == STOP) {
+        return;
+      }
+      try {
+        int type = job.type.ordinal();
+        if (generators[type] == null) {
+          generators[type] = job.type.generator();
+        }
+        GridGraph maze = generators[type].generate(job.r, job.c, job.seed);
+        this.sink.accept(job, maze);
+        this.mazes.incrementAndGet();
+        this.cells.addAndGet(maze.size());
+      } catch (Throwable e) {
+        // errors too, an OutOfMemoryError on one big job or an AssertionError, since a
+        // worker that died would leave submit and close waiting on a full queue
+        this.failure.compareAndSet(null, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package Functions;
+
+import java.util.SplittableRandom;
+
+import Structures.GridGraph;
+
+// generates mazes with the binary tree algorithm: every cell knocks down its east or its
+// south wall at random, or the only one it has on the right and bottom edges
+// one pass, no memory beyond the grid, but the right column and bottom row are always
+// straight corridors and every path drifts towards the bottom right
+public class BinaryTreeGenerator implements MazeGenerator {
+
+  public BinaryTreeGenerator() {
+  }
+
+  // generates an r x c maze, always the same one for the same seed
+  public GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    SplittableRandom rand = new SplittableRandom(seed);
+    for (int cell = 0; cell < grid.size(); cell++) {
+      boolean east = grid.hasEast(cell);
+      boolean south = grid.hasSouth(cell);
+      if (east && (!south || rand.nextBoolean())) {
+        grid.openEast(cell);
+      } else if (south) {
+        grid.openSouth(cell);
+      }
+    }
+    return grid.freeze();
+  }
+}
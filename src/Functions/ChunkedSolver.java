@@ -0,0 +1,172 @@
+package Functions;
+
+import Structures.ChunkStore;
+
+// breadth and depth first search over a maze in a ChunkStore, for mazes too big for
+// MazeSolver's per-cell arrays. where a search came from is kept in the store's search marks
+// (1 + the direction back to the cell it was reached from, START for the start), so it pages
+// in and out with the walls, and the path is read back by following the marks from the goal
+// the depth first search needs no stack either: when a cell has nothing left to try it steps
+// back along its mark and carries on with the parent's next direction
+// directions are GridGraph's passage order: left, right, below, top
+public class ChunkedSolver {
+  private static final int[] DX = {-1, 1, 0, 0};
+  private static final int[] DY = {0, 0, 1, -1};
+  private static final int START = 5;
+
+  private final ChunkStore store;
+  private long visited;
+  // where the last search started and was going, and whether it got there
+  private int startX;
+  private int startY;
+  private int goalX;
+  private int goalY;
+  private boolean found;
+
+  public ChunkedSolver(ChunkStore store) {
+    this.store = store;
+  }
+
+  // searches breadth first from (sx, sy) to (gx, gy), returns the steps on the path found,
+  // or -1 if there is none
+  // the frontier is the only thing that grows on the heap, a ring of packed cells
+  public long bfs(int sx, int sy, int gx, int gy) {
+    this.begin(sx, sy, gx, gy);
+    long[] queue = new long[1024];
+    int first = 0;
+    int count = 0;
+    queue[count++] = ChunkedSolver.pack(sx, sy);
+    while (count > 0 && !this.found) {
+      long cell = queue[first];
+      first = (first + 1) & (queue.length - 1);
+      count--;
+      int x = (int) cell;
+      int y = (int) (cell >>> 32);
+      int open = this.store.passages(x, y);
+      for (int d = 0; d < 4; d++) {
+        int nx = x + DX[d];
+        int ny = y + DY[d];
+        if ((open & (1 << d)) != 0 && this.store.mark(nx, ny) == 0) {
+          this.store.setMark(nx, ny, 1 + (d ^ 1));
+          this.visited++;
+          if (nx == gx && ny == gy) {
+            this.found = true;
+            break;
+          }
+          if (count == queue.length) {
+            // unroll the ring into one twice as big
+            long[] bigger = new long[queue.length * 2];
+            System.arraycopy(queue, first, bigger, 0, queue.length - first);
+            System.arraycopy(queue, 0, bigger, queue.length - first, first);
+            queue = bigger;
+            first = 0;
+          }
+          queue[(first + count++) & (queue.length - 1)] = ChunkedSolver.pack(nx, ny);
+        }
+      }
+    }
+    return this.pathLength();
+  }
+
+  // searches depth first from (sx, sy) to (gx, gy), returns the steps on the path found,
+  // or -1 if there is none
+  public long dfs(int sx, int sy, int gx, int gy) {
+    this.begin(sx, sy, gx, gy);
+    int x = sx;
+    int y = sy;
+    // the first direction still to try from (x, y)
+    int next = 0;
+    while (!this.found) {
+      int open = this.store.passages(x, y);
+      int d = next;
+      while (d < 4 && ((open & (1 << d)) == 0 || this.store.mark(x + DX[d], y + DY[d]) != 0)) {
+        d++;
+      }
+      if (d < 4) {
+        x += DX[d];
+        y += DY[d];
+        this.store.setMark(x, y, 1 + (d ^ 1));
+        this.visited++;
+        this.found = x == gx && y == gy;
+        next = 0;
+      } else if (x == sx && y == sy) {
+        break;
+      } else {
+        // back to the parent, which goes on with the direction after the one to here
+        int back = this.store.mark(x, y) - 1;
+        x += DX[back];
+        y += DY[back];
+        next = (back ^ 1) + 1;
+      }
+    }
+    return this.pathLength();
+  }
+
+  // the cells on the path the last search found, from start to goal, as y * c + x
+  // empty if it found none
+  public long[] path() {
+    long length = this.pathLength();
+    if (length < 0) {
+      return new long[0];
+    }
+    if (length >= Integer.MAX_VALUE) {
+      throw new IllegalStateException("The path has " + length + " steps, too many to list");
+    }
+    long[] path = new long[(int) length + 1];
+    int x = this.goalX;
+    int y = this.goalY;
+    for (int i = path.length - 1; i >= 0; i--) {
+      path[i] = (long) y * this.store.c + x;
+      if (i > 0) {
+        int back = this.store.mark(x, y) - 1;
+        x += DX[back];
+        y += DY[back];
+      }
+    }
+    return path;
+  }
+
+  // the number of cells the last search visited
+  public long getVisitedCount() {
+    return this.visited;
+  }
+
+  // checks if the last search reached its goal
+  public boolean isFound() {
+    return this.found;
+  }
+
+  // clears the marks of the last search and marks the start
+  private void begin(int sx, int sy, int gx, int gy) {
+    this.store.clearMarks();
+    this.startX = sx;
+    this.startY = sy;
+    this.goalX = gx;
+    this.goalY = gy;
+    this.store.setMark(sx, sy, START);
+    this.visited = 1;
+    this.found = sx == gx && sy == gy;
+  }
+
+  // the steps from the start to the goal along the marks, or -1 if the goal was not reached
+  private long pathLength() {
+    if (!this.found) {
+      return -1;
+    }
+    long steps = 0;
+    int x = this.goalX;
+    int y = this.goalY;
+    while (x != this.startX || y != this.startY) {
+      int back = this.store.mark(x, y) - 1;
+      x += DX[back];
+      y += DY[back];
+      steps++;
+    }
+    return steps;
+  }
+
+  // a cell as one long, column in the low half
+  private static long pack(int x, int y) {
+    return (long) y << 32 | x;
+  }
+}
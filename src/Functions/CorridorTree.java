@@ -0,0 +1,301 @@
+package Functions;
+
+import java.util.Arrays;
+
+import Structures.GridGraph;
+import Structures.RangeMin;
+
+// a perfect maze with its corridors collapsed, for answering many start/goal queries
+// the nodes are the cells that are not in the middle of a corridor (junctions, dead ends,
+// and cells with no passages), and each corridor between two nodes becomes one edge with
+// its length. the nodes are rooted at the first one and numbered in the order a depth first
+// walk reaches them, so where the paths up from two nodes meet is the parent of the
+// shallowest node numbered between them, one RangeMin lookup. a distance is then a few
+// array reads, and a path only touches the corridors on it
+// nothing is marked while answering, so any number of queries can be run one after another
+public class CorridorTree {
+  private final GridGraph grid;
+  // the node id of each cell, or -1 for a cell in the middle of a corridor
+  private final int[] node;
+  // the cell of each node
+  private final int[] nodeCell;
+  // the corridor a cell in the middle of one is on, and how far it is from the corridor's a end
+  private final int[] corridorOf;
+  private final int[] offset;
+  // per corridor: the nodes at its ends (a is the one nearer the root), its length in steps,
+  // and where its middle cells start in cells (listed from the a end to the b end)
+  private final int[] a;
+  private final int[] b;
+  private final int[] length;
+  private final int[] cellStart;
+  private final int[] cells;
+  // per node: the corridor up to its parent (-1 for the root), how many nodes and how many
+  // steps it is below the root, its number in walk order, and the last number below it,
+  // so v is below u when enter[u] <= enter[v] <= leave[u]
+  private final int[] up;
+  private final int[] depth;
+  private final int[] steps;
+  private final int[] enter;
+  private final int[] leave;
+  // the nodes in walk order, and the shallowest node between two numbers
+  private final int[] order;
+  private final RangeMin shallowest;
+
+  // collapses the corridors of a maze, which must be perfect (a spanning tree of the grid)
+  public CorridorTree(GridGraph grid) {
+    this.grid = grid;
+    int size = grid.size();
+    int[] out = new int[4];
+    long passages = 0;
+    int nodes = 0;
+    this.node = new int[size];
+    for (int cell = 0; cell < size; cell++) {
+      int n = grid.passages(cell, out);
+      passages += n;
+      this.node[cell] = n == 2 ? -1 : nodes++;
+    }
+    if (passages != 2L * (size - 1)) {
+      throw new IllegalArgumentException("A corridor tree needs a perfect maze, this one has "
+              + passages / 2 + " passages for " + size + " cells");
+    }
+    this.nodeCell = new int[nodes];
+    for (int cell = 0; cell < size; cell++) {
+      if (this.node[cell] >= 0) {
+        this.nodeCell[this.node[cell]] = cell;
+      }
+    }
+
+    // a tree has one edge fewer than nodes, and so does the tree of its nodes
+    int corridors = nodes - 1;
+    this.a = new int[corridors];
+    this.b = new int[corridors];
+    this.length = new int[corridors];
+    this.cellStart = new int[corridors + 1];
+    this.cells = new int[size - nodes];
+    this.corridorOf = new int[size];
+    this.offset = new int[size];
+    Arrays.fill(this.corridorOf, -1);
+    this.up = new int[nodes];
+    this.depth = new int[nodes];
+    this.steps = new int[nodes];
+    this.enter = new int[nodes];
+    this.leave = new int[nodes];
+    this.order = new int[nodes];
+
+    // walk the nodes depth first from the root, following each passage out of a node
+    // along its corridor to the next node, which becomes a child
+    // pending[v] is how many of v's passages are left to follow, and came[v] is the cell
+    // the walk reached v from (the one passage of v not to follow)
+    int[] pending = new int[nodes];
+    int[] came = new int[nodes];
+    int[] stack = new int[nodes];
+    int[] next = new int[4];
+    int top = 0;
+    int k = 0;
+    int filled = 0;
+    int count = 0;
+    this.up[0] = -1;
+    pending[0] = grid.passages(this.nodeCell[0], out);
+    this.order[count] = 0;
+    this.enter[0] = count++;
+    stack[top++] = 0;
+    while (top > 0) {
+      int v = stack[top - 1];
+      if (pending[v] == 0) {
+        this.leave[v] = count - 1;
+        top--;
+        continue;
+      }
+      int from = this.nodeCell[v];
+      grid.passages(from, out);
+      int first = out[--pending[v]];
+      if (v != 0 && first == came[v]) {
+        continue;
+      }
+      this.cellStart[k] = filled;
+      int prev = from;
+      int cell = first;
+      int walked = 1;
+      while (this.node[cell] < 0) {
+        this.corridorOf[cell] = k;
+        this.offset[cell] = walked;
+        this.cells[filled++] = cell;
+        grid.passages(cell, next);
+        int after = next[0] == prev ? next[1] : next[0];
+        prev = cell;
+        cell = after;
+        walked++;
+      }
+      int w = this.node[cell];
+      this.a[k] = v;
+      this.b[k] = w;
+      this.length[k] = walked;
+      this.up[w] = k;
+      this.depth[w] = this.depth[v] + 1;
+      this.steps[w] = this.steps[v] + walked;
+      this.order[count] = w;
+      this.enter[w] = count++;
+      came[w] = prev;
+      pending[w] = grid.passages(cell, out);
+      stack[top++] = w;
+      k++;
+    }
+    this.cellStart[k] = filled;
+
+    int[] depths = new int[nodes];
+    for (int i = 0; i < nodes; i++) {
+      depths[i] = this.depth[this.order[i]];
+    }
+    this.shallowest = new RangeMin(depths);
+  }
+
+  // the number of nodes left after collapsing
+  public int nodes() {
+    return this.nodeCell.length;
+  }
+
+  // the number of corridors, the edges between the nodes
+  public int corridors() {
+    return this.a.length;
+  }
+
+  // the maze the tree was built from
+  public GridGraph getGrid() {
+    return this.grid;
+  }
+
+  // the number of steps on the path between two cells, in constant time
+  public int distance(int start, int goal) {
+    int k = this.corridorOf[start];
+    if (k >= 0 && k == this.corridorOf[goal]) {
+      return Math.abs(this.offset[start] - this.offset[goal]);
+    }
+    int u = this.exit(start, goal);
+    int w = this.exit(goal, start);
+    int meet = this.meet(u, w);
+    return this.toNode(start, u) + this.steps[u] + this.steps[w] - 2 * this.steps[meet]
+            + this.toNode(goal, w);
+  }
+
+  // finds the path between two cells in time proportional to its length,
+  // visited is the number of nodes on it
+  public SearchResult solve(int start, int goal) {
+    long began = System.nanoTime();
+    int[] path = new int[this.distance(start, goal) + 1];
+    int k = this.corridorOf[start];
+    int nodes = 0;
+    if (k >= 0 && k == this.corridorOf[goal]) {
+      // both on the same corridor, walk along it
+      int step = this.offset[goal] > this.offset[start] ? 1 : -1;
+      for (int i = 0; i < path.length; i++) {
+        path[i] = this.cells[this.cellStart[k] + this.offset[start] - 1 + i * step];
+      }
+    } else {
+      int u = this.exit(start, goal);
+      int w = this.exit(goal, start);
+      int meet = this.meet(u, w);
+      nodes = this.depth[u] + this.depth[w] - 2 * this.depth[meet] + 1;
+
+      // start to u, then up from u to meet
+      int i = this.toNodeCells(start, u, path, 0);
+      for (int v = u; v != meet; v = this.a[this.up[v]]) {
+        path[i++] = this.nodeCell[v];
+        i = this.corridorCells(this.up[v], path, i);
+      }
+      path[i] = this.nodeCell[meet];
+
+      // down from meet to w is up from w to meet backwards, so it is written from the end
+      int j = this.toNodeCellsBack(goal, w, path, path.length - 1);
+      for (int v = w; v != meet; v = this.a[this.up[v]]) {
+        path[j--] = this.nodeCell[v];
+        j = this.corridorCellsBack(this.up[v], path, j);
+      }
+    }
+    return new SearchResult(path, new int[0], nodes, System.nanoTime() - began);
+  }
+
+  // the node a path from cell leaves its corridor by on the way to other
+  // a cell that is a node leaves by itself
+  private int exit(int cell, int other) {
+    int k = this.corridorOf[cell];
+    if (k < 0) {
+      return this.node[cell];
+    }
+    // down through b if other is below b, otherwise up through a
+    int below = this.corridorOf[other] < 0 ? this.node[other] : this.b[this.corridorOf[other]];
+    return this.isBelow(below, this.b[k]) ? this.b[k] : this.a[k];
+  }
+
+  // checks if node v is node u or below it
+  private boolean isBelow(int v, int u) {
+    return this.enter[u] <= this.enter[v] && this.enter[v] <= this.leave[u];
+  }
+
+  // the lowest node both u and w are below
+  // the nodes numbered after the first of them up to the second are the rest of the
+  // first's subtree and the subtrees the walk went down on its way to the second, and the
+  // shallowest of them hangs right below the meeting point
+  private int meet(int u, int w) {
+    if (u == w) {
+      return u;
+    }
+    int i = Math.min(this.enter[u], this.enter[w]);
+    int j = Math.max(this.enter[u], this.enter[w]);
+    return this.a[this.up[this.order[this.shallowest.min(i + 1, j)]]];
+  }
+
+  // steps from a cell to node v at one end of its corridor
+  private int toNode(int cell, int v) {
+    int k = this.corridorOf[cell];
+    if (k < 0) {
+      return 0;
+    }
+    return v == this.a[k] ? this.offset[cell] : this.length[k] - this.offset[cell];
+  }
+
+  // writes a cell and the middle cells of its corridor towards node v (not v itself) into
+  // path from i on, and returns where the next cell goes
+  private int toNodeCells(int cell, int v, int[] path, int i) {
+    int k = this.corridorOf[cell];
+    if (k < 0) {
+      return i;
+    }
+    int step = v == this.a[k] ? -1 : 1;
+    for (int j = this.cellStart[k] + this.offset[cell] - 1;
+         j >= this.cellStart[k] && j < this.cellStart[k + 1]; j += step) {
+      path[i++] = this.cells[j];
+    }
+    return i;
+  }
+
+  // the same as toNodeCells, but writing backwards from i, returns where the cell before goes
+  private int toNodeCellsBack(int cell, int v, int[] path, int i) {
+    int k = this.corridorOf[cell];
+    if (k < 0) {
+      return i;
+    }
+    int step = v == this.a[k] ? -1 : 1;
+    for (int j = this.cellStart[k] + this.offset[cell] - 1;
+         j >= this.cellStart[k] && j < this.cellStart[k + 1]; j += step) {
+      path[i--] = this.cells[j];
+    }
+    return i;
+  }
+
+  // writes the middle cells of corridor k from its b end to its a end into path from i on,
+  // and returns where the next cell goes
+  private int corridorCells(int k, int[] path, int i) {
+    for (int j = this.cellStart[k + 1] - 1; j >= this.cellStart[k]; j--) {
+      path[i++] = this.cells[j];
+    }
+    return i;
+  }
+
+  // the same as corridorCells, but writing backwards from i, returns where the cell before goes
+  private int corridorCellsBack(int k, int[] path, int i) {
+    for (int j = this.cellStart[k + 1] - 1; j >= this.cellStart[k]; j--) {
+      path[i--] = this.cells[j];
+    }
+    return i;
+  }
+}
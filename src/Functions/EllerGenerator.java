@@ -0,0 +1,152 @@
+package Functions;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import Structures.GridGraph;
+
+// generates mazes row by row with Eller's algorithm, handing each finished row to a sink
+// only the current row is kept: which set each of its cells is in, as labels in [0, c)
+// joined by a union find over those labels, so memory is O(c) whatever the height
+// each row: join neighbors in different sets at random, then send at least one cell of
+// every set down, and the cells nobody came down into start new sets in the next row
+// the last row joins every neighbor still in a different set, so the maze is perfect
+// like MazeGenerator, the same width, height and seed always give the same maze
+public class EllerGenerator {
+  private final int c;
+  private final SplittableRandom rand;
+  // the set label of each cell of the current row
+  private final int[] label;
+  // union find over labels, only used while joining a row
+  private final int[] parent;
+  // per label: cells of the row left to look at, and whether one of them went down
+  private final int[] left;
+  private final boolean[] down;
+  // labels no cell of the next row has yet
+  private final int[] free;
+  private final long[] east;
+  private final long[] south;
+  // random bits not used yet, so a coin flip is a shift instead of a call into rand
+  private long bits;
+  private int bitsLeft;
+
+  public EllerGenerator(int c, long seed) {
+    if (c < 1) {
+      throw new IllegalArgumentException("A maze needs at least 1 column, got " + c);
+    }
+    this.c = c;
+    this.rand = new SplittableRandom(seed);
+    this.label = new int[c];
+    this.parent = new int[c];
+    this.left = new int[c];
+    this.down = new boolean[c];
+    this.free = new int[c];
+    this.east = new long[(c + 63) >>> 6];
+    this.south = new long[(c + 63) >>> 6];
+  }
+
+  // generates r rows, handing each to the sink as soon as it is done
+  public void generate(int r, RowSink sink) {
+    for (int x = 0; x < this.c; x++) {
+      this.label[x] = x;
+    }
+    for (int y = 0; y < r; y++) {
+      boolean last = y == r - 1;
+      Arrays.fill(this.east, 0);
+      Arrays.fill(this.south, 0);
+      this.joinRow(last);
+      if (!last) {
+        this.goDown();
+      }
+      sink.row(y, this.east, this.south);
+    }
+  }
+
+  // generates an r x c maze into a grid graph, for showing or solving it
+  public static GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    new EllerGenerator(c, seed).generate(r, (y, east, south) -> {
+      for (int x = 0; x < c; x++) {
+        if ((east[x >>> 6] & (1L << x)) != 0) {
+          grid.openEast(grid.index(x, y));
+        }
+        if ((south[x >>> 6] & (1L << x)) != 0) {
+          grid.openSouth(grid.index(x, y));
+        }
+      }
+    });
+    return grid.freeze();
+  }
+
+  // knocks down walls between neighbors in different sets, at random unless this is the
+  // last row, then relabels every cell with its set's representative
+  private void joinRow(boolean last) {
+    for (int x = 0; x < this.c; x++) {
+      this.parent[this.label[x]] = this.label[x];
+    }
+    for (int x = 0; x < this.c - 1; x++) {
+      int a = this.find(this.label[x]);
+      int b = this.find(this.label[x + 1]);
+      if (a != b && (last || this.coin())) {
+        this.parent[b] = a;
+        this.east[x >>> 6] |= 1L << x;
+      }
+    }
+    for (int x = 0; x < this.c; x++) {
+      this.label[x] = this.find(this.label[x]);
+    }
+  }
+
+  // knocks down walls below at random, at least one per set, and labels the next row:
+  // cells that were come down into keep the set, the rest get a label no set is using
+  private void goDown() {
+    Arrays.fill(this.left, 0);
+    Arrays.fill(this.down, false);
+    for (int x = 0; x < this.c; x++) {
+      this.left[this.label[x]]++;
+    }
+    for (int x = 0; x < this.c; x++) {
+      int set = this.label[x];
+      this.left[set]--;
+      // the last cell of a set that has not gone down yet has to
+      if (this.coin() || (this.left[set] == 0 && !this.down[set])) {
+        this.down[set] = true;
+        this.south[x >>> 6] |= 1L << x;
+      }
+    }
+
+    // down now marks the labels carried into the next row
+    int frees = 0;
+    for (int set = 0; set < this.c; set++) {
+      if (!this.down[set]) {
+        this.free[frees++] = set;
+      }
+    }
+    for (int x = 0; x < this.c; x++) {
+      if ((this.south[x >>> 6] & (1L << x)) == 0) {
+        this.label[x] = this.free[--frees];
+      }
+    }
+  }
+
+  // a fair coin flip
+  private boolean coin() {
+    if (this.bitsLeft == 0) {
+      this.bits = this.rand.nextLong();
+      this.bitsLeft = 64;
+    }
+    this.bitsLeft--;
+    boolean heads = (this.bits & 1) != 0;
+    this.bits >>>= 1;
+    return heads;
+  }
+
+  // finds the representative of a label's set, halving the path on the way up
+  private int find(int x) {
+    while (this.parent[x] != x) {
+      this.parent[x] = this.parent[this.parent[x]];
+      x = this.parent[x];
+    }
+    return x;
+  }
+}
@@ -0,0 +1,175 @@
+package Functions;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import Structures.GridGraph;
+
+// a parallel version of UnionFind.minSpanTree(GridGraph), using Filter-Kruskal:
+// the edges are counting-sorted by weight in parallel, then taken in chunks, each chunk is
+// run through the usual sequential Kruskal loop, and before the next chunk the edges that
+// are left are filtered in parallel, dropping those whose ends are already joined
+// a dropped edge is one Kruskal would have rejected, and ties keep their edge id order,
+// so the tree (and the maze) is exactly the one the sequential engine builds
+public class FilterKruskal {
+  // how many blocks of work per thread, so uneven blocks still keep every thread busy
+  private static final int BLOCKS_PER_THREAD = 4;
+  // grids smaller than this are not worth splitting up
+  private static final int MIN_PARALLEL = 1 << 14;
+
+  private final ForkJoinPool pool;
+  private final UnionFind sets = new UnionFind();
+
+  // uses the common pool
+  public FilterKruskal() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  public FilterKruskal(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  // generates the minimum spanning tree of a grid graph
+  // knocks down the wall of every edge in the tree and returns how many there are
+  public int minSpanTree(GridGraph grid) {
+    int size = grid.size();
+    if (size < MIN_PARALLEL || this.pool.getParallelism() == 1) {
+      return new UnionFind().minSpanTree(grid);
+    }
+    this.sets.reset(size);
+
+    int[] edges = this.sortByWeight(grid);
+    int count = edges.length;
+    int done = 0;
+    int accepted = 0;
+    // a chunk of about one edge per cell joins most of the grid (a square grid
+    // percolates once half its edges are in), so the first filter drops most of the rest
+    while (done < count && accepted < size - 1) {
+      int end = (int) Math.min(count, (long) done + size);
+      for (int i = done; i < end && accepted < size - 1; i++) {
+        int e = edges[i];
+        if (this.sets.union(e >>> 1, grid.other(e))) {
+          grid.open(e);
+          accepted++;
+        }
+      }
+      done = end;
+      if (done < count && accepted < size - 1) {
+        count = done + this.filter(grid, edges, done, count);
+      }
+    }
+    return accepted;
+  }
+
+  // collects the id of every edge in the grid, stably sorted by weight
+  // each block of cells counts its weights, then writes its edges at the offsets the counts
+  // give it, which is the order the sequential counting sort puts them in
+  private int[] sortByWeight(GridGraph grid) {
+    int size = grid.size();
+    int blocks = this.blocks(size);
+    int[][] counts = new int[blocks][Byte.MAX_VALUE + 1];
+    this.forEachBlock(blocks, b -> {
+      int[] mine = counts[b];
+      for (int e = FilterKruskal.start(b, blocks, size) * 2;
+           e < FilterKruskal.start(b + 1, blocks, size) * 2; e++) {
+        if (grid.isEdge(e)) {
+          mine[grid.weight(e)]++;
+        }
+      }
+    });
+
+    // turn the counts into where each block's first edge of each weight goes
+    int total = 0;
+    for (int w = 0; w <= Byte.MAX_VALUE; w++) {
+      for (int b = 0; b < blocks; b++) {
+        int n = counts[b][w];
+        counts[b][w] = total;
+        total += n;
+      }
+    }
+
+    int[] sorted = new int[total];
+    this.forEachBlock(blocks, b -> {
+      int[] next = counts[b];
+      for (int e = FilterKruskal.start(b, blocks, size) * 2;
+           e < FilterKruskal.start(b + 1, blocks, size) * 2; e++) {
+        if (grid.isEdge(e)) {
+          sorted[next[grid.weight(e)]++] = e;
+        }
+      }
+    });
+    return sorted;
+  }
+
+  // drops the edges in [from, to) whose ends are already in the same set, keeping the order
+  // of the rest, which are moved up to start at from. returns how many are left
+  // the sets are only read here, so the blocks can share them
+  private int filter(GridGraph grid, int[] edges, int from, int to) {
+    int blocks = this.blocks(to - from);
+    int[] kept = new int[blocks];
+    this.forEachBlock(blocks, b -> {
+      int start = from + FilterKruskal.start(b, blocks, to - from);
+      int end = from + FilterKruskal.start(b + 1, blocks, to - from);
+      int n = start;
+      for (int i = start; i < end; i++) {
+        int e = edges[i];
+        if (this.sets.root(e >>> 1) != this.sets.root(grid.other(e))) {
+          edges[n++] = e;
+        }
+      }
+      kept[b] = n - start;
+    });
+
+    // close the gaps, each block only moves left, so going in order never overwrites
+    // an edge that has not been moved yet
+    int left = 0;
+    for (int b = 0; b < blocks; b++) {
+      System.arraycopy(edges, from + FilterKruskal.start(b, blocks, to - from),
+              edges, from + left, kept[b]);
+      left += kept[b];
+    }
+    return left;
+  }
+
+  // how many blocks to split n items into
+  private int blocks(int n) {
+    return FilterKruskal.blocks(this.pool, n);
+  }
+
+  // how many blocks to split n items into on a pool
+  static int blocks(ForkJoinPool pool, int n) {
+    return Math.max(1, Math.min(n, pool.getParallelism() * BLOCKS_PER_THREAD));
+  }
+
+  // the first of n items in block b of blocks
+  static int start(int b, int blocks, int n) {
+    return (int) ((long) n * b / blocks);
+  }
+
+  // runs body for every block in the pool
+  private void forEachBlock(int blocks, IntConsumer body) {
+    FilterKruskal.forEachBlock(this.pool, blocks, body);
+  }
+
+  // runs body for every block in a pool, returning once they are all done
+  static void forEachBlock(ForkJoinPool pool, int blocks, IntConsumer body) {
+    ArrayList<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+    for (int b = 0; b < blocks; b++) {
+      int block = b;
+      tasks.add(() -> {
+        body.accept(block);
+        return null;
+      });
+    }
+    for (Future<Void> f : pool.invokeAll(tasks)) {
+      try {
+        f.get();
+      } catch (Exception e) {
+        throw new IllegalStateException("Parallel maze generation failed", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package Functions;
+
+import java.util.ArrayList;
+
+// the algorithms a maze can be generated with
+public enum GeneratorType {
+  // minimum spanning tree of random weights, sorted once
+  KRUSKAL,
+  // the same tree as Kruskal, grown out from one cell with a heap
+  PRIM,
+  // random depth first walk, long winding corridors
+  BACKTRACKER,
+  // loop-erased random walks, a uniformly random maze
+  WILSON,
+  // one random walk until every cell is reached, also uniform, but slow to finish
+  ALDOUS_BRODER,
+  // every cell opens east or south, corridors along the bottom and right edges
+  BINARY_TREE,
+  // rows of runs, each opening south once, a corridor along the bottom
+  SIDEWINDER,
+  // row by row in O(columns) memory, see EllerGenerator
+  ELLER;
+
+  // a generator running this algorithm
+  public MazeGenerator generator() {
+    switch (this) {
+      case PRIM:
+        return new PrimGenerator();
+      case BACKTRACKER:
+        return new BacktrackerGenerator();
+      case WILSON:
+        return new WilsonGenerator();
+      case ALDOUS_BRODER:
+        return new AldousBroderGenerator();
+      case BINARY_TREE:
+        return new BinaryTreeGenerator();
+      case SIDEWINDER:
+        return new SidewinderGenerator();
+      case ELLER:
+        return EllerGenerator::generate;
+      default:
+        return new KruskalGenerator();
+    }
+  }
+
+  // the name used on the command line, e.g. "aldous-broder"
+  public String label() {
+    return this.name().toLowerCase().replace('_', '-');
+  }
+
+  // the algorithm with the given name, ignoring case (e.g. "wilson" or "binary-tree")
+  public static GeneratorType parse(String name) {
+    ArrayList<String> labels = new ArrayList<String>();
+    for (GeneratorType g : GeneratorType.values()) {
+      if (g.label().equalsIgnoreCase(name) || g.name().equalsIgnoreCase(name)) {
+        return g;
+      }
+      labels.add(g.label());
+    }
+    throw new IllegalArgumentException("\nUnknown generator " + name + ", expected one of "
+            + labels);
+  }
+}
@@ -0,0 +1,78 @@
+package Functions;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import Structures.GridGraph;
+
+// generates mazes with Kruskal's algorithm
+// every edge gets a random weight, then the walls of the minimum spanning tree are knocked down
+// each row draws its weights from its own generator split off the seed's, in row order,
+// so rows could be weighed in any order
+// given a pool, the rows are weighed and the tree is built in parallel (FilterKruskal),
+// which gives exactly the same maze for a seed as the sequential engine
+// the sequential engine keeps its UnionFind from maze to maze, so a generator making many
+// mazes reuses the same disjoint set and edge arrays. that makes it one thread's generator:
+// give each thread its own
+public class KruskalGenerator implements MazeGenerator {
+  // null for the sequential engine
+  private final ForkJoinPool pool;
+  private final UnionFind sets = new UnionFind();
+
+  public KruskalGenerator() {
+    this.pool = null;
+  }
+
+  // generates mazes using the threads of the given pool
+  public KruskalGenerator(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  // generates an r x c maze, always the same one for the same seed
+  public GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    if (this.pool == null) {
+      KruskalGenerator.weigh(grid, seed);
+      this.sets.minSpanTree(grid);
+    } else {
+      SplittableRandom rows = new SplittableRandom(seed);
+      // split in row order first, so every row gets the generator it gets sequentially
+      SplittableRandom[] perRow = new SplittableRandom[r];
+      for (int y = 0; y < r; y++) {
+        perRow[y] = rows.split();
+      }
+      int blocks = FilterKruskal.blocks(this.pool, r);
+      FilterKruskal.forEachBlock(this.pool, blocks, b -> {
+        for (int y = FilterKruskal.start(b, blocks, r); y < FilterKruskal.start(b + 1, blocks, r);
+             y++) {
+          KruskalGenerator.weighRow(grid, y, perRow[y]);
+        }
+      });
+      new FilterKruskal(this.pool).minSpanTree(grid);
+    }
+    return grid.freeze();
+  }
+
+  // gives every edge of the grid a random weight in [0, 100), the same ones for the same seed
+  static void weigh(GridGraph grid, long seed) {
+    SplittableRandom rows = new SplittableRandom(seed);
+    for (int y = 0; y < grid.r; y++) {
+      KruskalGenerator.weighRow(grid, y, rows.split());
+    }
+  }
+
+  // gives every edge owned by a cell of row y a random weight in [0, 100)
+  private static void weighRow(GridGraph grid, int y, SplittableRandom rand) {
+    for (int cell = grid.index(0, y); cell < grid.index(0, y + 1); cell++) {
+      // add edge with right node of cell
+      if (grid.hasEast(cell)) {
+        grid.setWeight(cell * 2 + GridGraph.EAST, rand.nextInt(100));
+      }
+
+      // add edge with below node of cell
+      if (grid.hasSouth(cell)) {
+        grid.setWeight(cell * 2 + GridGraph.SOUTH, rand.nextInt(100));
+      }
+    }
+  }
+}
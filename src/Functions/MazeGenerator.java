@@ -0,0 +1,24 @@
+package Functions;
+
+import java.util.SplittableRandom;
+
+import Structures.GridGraph;
+
+// generates mazes as grid graphs, without drawing anything
+// the grids it returns are frozen, so they can be shared between solvers and views
+// a maze is fully determined by its generator, size and seed
+// GeneratorType lists the algorithms, which differ a lot in cost and in texture
+public interface MazeGenerator {
+  // generates an r x c maze, always the same one for the same seed
+  GridGraph generate(int r, int c, long seed);
+
+  // generates an r x c maze from a fresh random seed
+  default GridGraph generate(int r, int c) {
+    return this.generate(r, c, new SplittableRandom().nextLong());
+  }
+
+  // the seed that follows another, so a run of mazes can be replayed from its first seed
+  static long nextSeed(long seed) {
+    return new SplittableRandom(seed).nextLong();
+  }
+}
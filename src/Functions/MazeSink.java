@@ -0,0 +1,10 @@
+package Functions;
+
+import Structures.GridGraph;
+
+// receives the mazes a BatchGenerator makes, each with the job it was made for
+// it is called from the worker threads, several at once and in no particular order, so it
+// must be safe to call from any thread
+public interface MazeSink {
+  void accept(BatchGenerator.Job job, GridGraph maze);
+}
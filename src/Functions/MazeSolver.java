@@ -0,0 +1,266 @@
+package Functions;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import Structures.GridGraph;
+import Structures.ICollection;
+import Structures.IntCollection;
+
+// solves a maze held in a grid graph
+// a search is normally run to completion with solve, in a tight loop over a visited bit set
+// and a parent array; it can also be run one cell at a time with begin and step
+// nothing here draws anything: the gui replays the visit order solve can record
+public class MazeSolver {
+  private final GridGraph grid;
+  private final int[] neighbors = new int[4];
+  // the worklist, through addInt and removeInt so its cells are never boxed when it is an
+  // IntCollection
+  private IntCollection worklist;
+  private BitSet visited;
+  private int[] toFrom;
+  private int start;
+  private int goal;
+  private int visitedCount;
+  private boolean found;
+  // cells in the order they were visited, null when not recording
+  private int[] order;
+
+  public MazeSolver(GridGraph grid) {
+    this.grid = grid;
+  }
+
+  // runs a search from start to goal to completion with the given strategy
+  public SearchResult solve(int start, int goal, SearchStrategy strategy) {
+    return this.solve(start, goal, strategy, false);
+  }
+
+  // runs a search from start to goal to completion with the given strategy,
+  // also recording the order cells were visited in if recordOrder is true
+  public SearchResult solve(int start, int goal, SearchStrategy strategy, boolean recordOrder) {
+    if (strategy == SearchStrategy.BIDIRECTIONAL) {
+      return this.solveBidirectional(start, goal, recordOrder);
+    }
+    return this.solve(start, goal, strategy.worklist(this.grid, goal), recordOrder);
+  }
+
+  // runs a search from start to goal to completion, taking cells from the worklist in
+  // its order (a queue gives a breadth first search, a stack a depth first search)
+  public SearchResult solve(int start, int goal, ICollection<Integer> worklist) {
+    return this.solve(start, goal, worklist, false);
+  }
+
+  // runs a search to completion with the given worklist, optionally recording the visit order
+  private SearchResult solve(int start, int goal, ICollection<Integer> worklist,
+                             boolean recordOrder) {
+    long began = System.nanoTime();
+    this.begin(start, goal, worklist);
+    this.order = recordOrder ? new int[this.grid.size()] : null;
+    while (!this.isDone()) {
+      this.step();
+    }
+    int[] path = this.getPath();
+    long nanos = System.nanoTime() - began;
+    int[] visitOrder = recordOrder ? Arrays.copyOf(this.order, this.visitedCount) : new int[0];
+    this.order = null;
+    return new SearchResult(path, visitOrder, this.visitedCount, nanos);
+  }
+
+  // runs breadth first searches from start and from goal, each time taking a cell off the
+  // shorter of the two queues, until one of them reaches a cell the other has already reached
+  // the path is the first search's path to where they met followed by the second's back
+  // from there to the goal. in a perfect maze it visits about half the cells bfs does
+  private SearchResult solveBidirectional(int start, int goal, boolean recordOrder) {
+    long began = System.nanoTime();
+    int size = this.grid.size();
+    // cells reached from the start and from the goal, and each one's parent on its side
+    BitSet fromStart = new BitSet(size);
+    BitSet fromGoal = new BitSet(size);
+    this.toFrom = new int[size];
+    int[][] queues = {new int[size], new int[size]};
+    int[] heads = new int[2];
+    int[] tails = new int[2];
+    int[] visitOrder = recordOrder ? new int[size] : null;
+    int visits = 0;
+    // the edge the searches met over, the start side's cell first
+    int meetStart = -1;
+    int meetGoal = -1;
+
+    fromStart.set(start);
+    fromGoal.set(goal);
+    queues[0][tails[0]++] = start;
+    queues[1][tails[1]++] = goal;
+    if (start == goal) {
+      meetStart = start;
+      meetGoal = goal;
+    }
+    int side = 0;
+    while (meetStart < 0 && heads[0] < tails[0] && heads[1] < tails[1]) {
+      BitSet mine = side == 0 ? fromStart : fromGoal;
+      BitSet theirs = side == 0 ? fromGoal : fromStart;
+      int[] queue = queues[side];
+      int cell = queue[heads[side]++];
+      if (visitOrder != null) {
+        visitOrder[visits] = cell;
+      }
+      visits++;
+      int n = this.grid.passages(cell, this.neighbors);
+      for (int i = 0; i < n; i++) {
+        int neighbor = this.neighbors[i];
+        if (theirs.get(neighbor)) {
+          meetStart = side == 0 ? cell : neighbor;
+          meetGoal = side == 0 ? neighbor : cell;
+          break;
+        } else if (!mine.get(neighbor)) {
+          mine.set(neighbor);
+          this.toFrom[neighbor] = cell;
+          queue[tails[side]++] = neighbor;
+        }
+      }
+      // carry on from whichever side has the smaller frontier, taking turns on a tie
+      int waiting = (tails[0] - heads[0]) - (tails[1] - heads[1]);
+      side = waiting < 0 ? 0 : waiting > 0 ? 1 : 1 - side;
+    }
+
+    int[] path = meetStart < 0 ? new int[0] : this.splice(start, meetStart, meetGoal, goal);
+    long nanos = System.nanoTime() - began;
+    BitSet goalSide = new BitSet();
+    int[] order = new int[0];
+    if (visitOrder != null) {
+      order = Arrays.copyOf(visitOrder, visits);
+      for (int cell : order) {
+        if (fromGoal.get(cell) && !fromStart.get(cell)) {
+          goalSide.set(cell);
+        }
+      }
+    }
+    // a bidirectional search cannot be stepped, so leave no half finished search behind
+    this.worklist = null;
+    this.found = false;
+    return new SearchResult(path, order, visits, nanos, goalSide);
+  }
+
+  // joins the path from start to a and the path from b to goal, where a and b are next to
+  // each other and toFrom leads from a back to start and from b on to goal
+  private int[] splice(int start, int a, int b, int goal) {
+    int toA = 1;
+    for (int cell = a; cell != start; cell = this.toFrom[cell]) {
+      toA++;
+    }
+    int fromB = a == b ? 0 : 1;
+    for (int cell = b; cell != goal; cell = this.toFrom[cell]) {
+      fromB++;
+    }
+    int[] path = new int[toA + fromB];
+    int i = toA - 1;
+    for (int cell = a; cell != start; cell = this.toFrom[cell]) {
+      path[i--] = cell;
+    }
+    path[0] = start;
+    if (a != b) {
+      i = toA;
+      for (int cell = b; cell != goal; cell = this.toFrom[cell]) {
+        path[i++] = cell;
+      }
+      path[i] = goal;
+    }
+    return path;
+  }
+
+  // sets up a new search from start to goal with the given strategy
+  public void begin(int start, int goal, SearchStrategy strategy) {
+    this.begin(start, goal, strategy.worklist(this.grid, goal));
+  }
+
+  // sets up a new search from start to goal using the given worklist
+  public void begin(int start, int goal, ICollection<Integer> worklist) {
+    this.worklist = IntCollection.of(worklist);
+    this.visited = new BitSet(this.grid.size());
+    this.toFrom = new int[this.grid.size()];
+    this.start = start;
+    this.goal = goal;
+    this.visitedCount = 0;
+    this.found = false;
+    this.order = null;
+    this.worklist.addInt(start);
+  }
+
+  // takes the next cell off the worklist and visits it
+  // returns the cell visited, or -1 if it had already been visited or the search is over
+  public int step() {
+    if (this.isDone()) {
+      return -1;
+    }
+    int next = this.worklist.removeInt();
+    if (next == this.goal) { // reached the end
+      this.found = true;
+      this.visit(next);
+      return next;
+    } else if (this.visited.get(next)) {
+      // do nothing, we have already been here
+      return -1;
+    } else {
+      // add all the unvisited neighbors of next to the worklist,
+      // remembering where each one was reached from
+      int n = this.grid.passages(next, this.neighbors);
+      for (int i = 0; i < n; i++) {
+        int neighbor = this.neighbors[i];
+        if (!this.visited.get(neighbor)) {
+          this.worklist.addInt(neighbor);
+          this.toFrom[neighbor] = next;
+        }
+      }
+      this.visited.set(next);
+      this.visit(next);
+      return next;
+    }
+  }
+
+  // counts a cell as visited, recording it if the order is being kept
+  private void visit(int cell) {
+    if (this.order != null) {
+      this.order[this.visitedCount] = cell;
+    }
+    this.visitedCount++;
+  }
+
+  // checks if the search has reached the goal or run out of cells
+  public boolean isDone() {
+    return this.found || this.worklist == null || this.worklist.isEmpty();
+  }
+
+  // checks if the search reached the goal
+  public boolean isFound() {
+    return this.found;
+  }
+
+  // the cells of the path from start to goal, or an empty array if the goal was not reached
+  // walks the parent array twice (once to count, once to fill) instead of recursing,
+  // so paths millions of cells long need no stack and no list
+  public int[] getPath() {
+    if (!this.found) {
+      return new int[0];
+    }
+    int length = 1;
+    for (int cell = this.goal; cell != this.start; cell = this.toFrom[cell]) {
+      length++;
+    }
+    int[] path = new int[length];
+    int i = length - 1;
+    for (int cell = this.goal; cell != this.start; cell = this.toFrom[cell]) {
+      path[i--] = cell;
+    }
+    path[0] = this.start;
+    return path;
+  }
+
+  // getter for the number of cells the search has visited
+  public int getVisitedCount() {
+    return this.visitedCount;
+  }
+
+  // getter for the maze being solved
+  public GridGraph getGrid() {
+    return this.grid;
+  }
+}
@@ -0,0 +1,107 @@
+package Functions;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Structures.ConcurrentIntQueue;
+import Structures.GridGraph;
+
+// floods a maze from the start on every thread of a pool at once, until some thread reaches
+// the goal: the threads share one lock-free frontier (a ConcurrentIntQueue), take cells off
+// it, and claim each unreached neighbor with a compare and set on its parent, so every cell
+// is queued exactly once and by one thread
+// the cells are not taken in rounds, so it is not a breadth first search: in a perfect maze
+// the path is still the only one there is, in a maze with loops it is a path but not always
+// the shortest. there is no visit order to replay either
+// the search is over when the goal is claimed, or when nothing is queued and nobody is
+// still expanding a cell (pending counts the cells queued but not yet expanded)
+public class ParallelSolver {
+  private final GridGraph grid;
+  private final ForkJoinPool pool;
+
+  public ParallelSolver(GridGraph grid, ForkJoinPool pool) {
+    this.grid = grid;
+    this.pool = pool;
+  }
+
+  // searches from start to goal on every thread of the pool
+  public SearchResult solve(int start, int goal) {
+    long began = System.nanoTime();
+    int size = this.grid.size();
+    AtomicIntegerArray parent = new AtomicIntegerArray(size);
+    for (int cell = 0; cell < size; cell++) {
+      parent.set(cell, -1);
+    }
+    ConcurrentIntQueue frontier = new ConcurrentIntQueue(size);
+    AtomicLong pending = new AtomicLong(1);
+    // set once the goal has been claimed, or in place of a search when start is the goal
+    AtomicBoolean found = new AtomicBoolean(start == goal);
+    parent.set(start, start);
+    frontier.offer(start);
+
+    ArrayList<Future<Integer>> workers = new ArrayList<Future<Integer>>();
+    for (int i = 0; i < this.pool.getParallelism(); i++) {
+      workers.add(this.pool.submit(() -> this.expand(goal, parent, frontier, pending, found)));
+    }
+    int visited = 0;
+    for (Future<Integer> worker : workers) {
+      try {
+        visited += worker.get();
+      } catch (Exception e) {
+        throw new IllegalStateException("Parallel search failed", e);
+      }
+    }
+
+    int[] path = new int[0];
+    if (parent.get(goal) >= 0) {
+      int length = 1;
+      for (int cell = goal; cell != start; cell = parent.get(cell)) {
+        length++;
+      }
+      path = new int[length];
+      int i = length - 1;
+      for (int cell = goal; cell != start; cell = parent.get(cell)) {
+        path[i--] = cell;
+      }
+      path[0] = start;
+    }
+    return new SearchResult(path, new int[0], visited, System.nanoTime() - began);
+  }
+
+  // one thread of the search: takes cells off the frontier and queues the neighbors it
+  // claims, until the goal is found or nothing is left. returns the cells it expanded
+  private int expand(int goal, AtomicIntegerArray parent, ConcurrentIntQueue frontier,
+                     AtomicLong pending, AtomicBoolean found) {
+    int[] neighbors = new int[4];
+    int visited = 0;
+    while (!found.get()) {
+      int cell = frontier.poll();
+      if (cell == ConcurrentIntQueue.EMPTY) {
+        if (pending.get() == 0) {
+          break;
+        }
+        // another thread is expanding a cell and may queue more
+        Thread.onSpinWait();
+        continue;
+      }
+      visited++;
+      int n = this.grid.passages(cell, neighbors);
+      for (int i = 0; i < n; i++) {
+        int neighbor = neighbors[i];
+        if (parent.compareAndSet(neighbor, -1, cell)) {
+          if (neighbor == goal) {
+            found.set(true);
+          }
+          pending.incrementAndGet();
+          frontier.offer(neighbor);
+        }
+      }
+      pending.decrementAndGet();
+    }
+    return visited;
+  }
+}
@@ -0,0 +1,43 @@
+package Functions;
+
+import Structures.GridGraph;
+import Structures.IntHeap;
+
+// generates mazes with Prim's algorithm: the tree grows out from the top left cell, always
+// through the lightest edge leaving it, kept per cell in an indexed heap
+// the edges get the same weights as KruskalGenerator's and ties go to the lower edge id,
+// so for a seed this is the very same maze, grown in a different order
+public class PrimGenerator implements MazeGenerator {
+
+  public PrimGenerator() {
+  }
+
+  // generates an r x c maze, always the same one for the same seed
+  public GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    KruskalGenerator.weigh(grid, seed);
+
+    // a cell's key is the weight and then the id of the lightest edge joining it to the tree
+    IntHeap heap = new IntHeap(grid.size());
+    boolean[] inTree = new boolean[grid.size()];
+    int[] neighbors = new int[4];
+    int cell = 0;
+    while (true) {
+      inTree[cell] = true;
+      int n = grid.neighbors(cell, neighbors);
+      for (int i = 0; i < n; i++) {
+        int next = neighbors[i];
+        if (!inTree[next]) {
+          int e = grid.edge(cell, next);
+          heap.offer(next, (long) grid.weight(e) << 32 | e);
+        }
+      }
+      if (heap.isEmpty()) {
+        break;
+      }
+      cell = heap.poll();
+      grid.open((int) heap.key(cell));
+    }
+    return grid.freeze();
+  }
+}
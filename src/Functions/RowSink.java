@@ -0,0 +1,10 @@
+package Functions;
+
+// receives the rows of a maze one at a time, top to bottom, as a streaming generator
+// finishes them
+// bit x of east is set if cell x has a passage to its right, bit x of south if it has one
+// to the cell below (never set in the last row). the arrays are reused for the next row,
+// so a sink that keeps them must copy them
+public interface RowSink {
+  void row(int y, long[] east, long[] south);
+}
@@ -0,0 +1,30 @@
+package Functions;
+
+import java.util.BitSet;
+
+// the outcome of running a search to completion: the path it found and what it cost
+public class SearchResult {
+  // cells from start to goal, empty if the goal could not be reached
+  public final int[] path;
+  // cells in the order the search visited them, empty unless the search recorded them
+  public final int[] order;
+  // number of cells the search visited
+  public final int visited;
+  // wall-clock time the search took
+  public final long nanos;
+  // the cells of order that were visited searching back from the goal,
+  // empty unless the search ran from both ends
+  public final BitSet fromGoal;
+
+  public SearchResult(int[] path, int[] order, int visited, long nanos) {
+    this(path, order, visited, nanos, new BitSet());
+  }
+
+  public SearchResult(int[] path, int[] order, int visited, long nanos, BitSet fromGoal) {
+    this.path = path;
+    this.order = order;
+    this.visited = visited;
+    this.nanos = nanos;
+    this.fromGoal = fromGoal;
+  }
+}
@@ -0,0 +1,62 @@
+package Functions;
+
+import java.util.Arrays;
+
+import Structures.GridGraph;
+import Structures.IntCollection;
+import Structures.IntQueue;
+import Structures.IntStack;
+import Structures.MHeap;
+
+// the order a search takes cells off its worklist
+public enum SearchStrategy {
+  // breadth first: the worklist is a queue
+  BFS,
+  // depth first: the worklist is a stack
+  DFS,
+  // A*: the worklist is a heap on steps taken plus the manhattan distance left,
+  // ties going to the cell closer to the goal
+  ASTAR,
+  // greedy best first: the worklist is a heap on the manhattan distance left only
+  GREEDY,
+  // breadth first from both ends at once, until the two searches meet
+  // it keeps two queues, so MazeSolver.solve runs it, it has no single worklist
+  BIDIRECTIONAL;
+
+  // a fresh, empty worklist for a search of the grid towards goal
+  // queues and stacks are int arrays with room for every cell, so they never box or grow
+  public IntCollection worklist(GridGraph grid, int goal) {
+    switch (this) {
+      case BIDIRECTIONAL:
+        throw new IllegalArgumentException("\nA bidirectional search has no single worklist, "
+                + "run it with MazeSolver.solve");
+      case DFS:
+        return new IntStack(grid.size());
+      case ASTAR:
+        return new MHeap(grid.size(), (cell, steps) -> {
+          long h = SearchStrategy.distance(grid, cell, goal);
+          return (steps + h) << 32 | h;
+        });
+      case GREEDY:
+        return new MHeap(grid.size(), (cell, steps) -> SearchStrategy.distance(grid, cell, goal));
+      default:
+        return new IntQueue(grid.size());
+    }
+  }
+
+  // the manhattan distance between two cells, never more than the steps between them
+  static int distance(GridGraph grid, int a, int b) {
+    return Math.abs(grid.x(a) - grid.x(b)) + Math.abs(grid.y(a) - grid.y(b));
+  }
+
+  // the strategy with the given name, ignoring case (e.g. "bfs")
+  public static SearchStrategy parse(String name) {
+    for (SearchStrategy s : SearchStrategy.values()) {
+      if (s.name().equalsIgnoreCase(name)) {
+        return s;
+      }
+    }
+    throw new IllegalArgumentException("\nUnknown solver " + name + ", expected one of "
+            + Arrays.toString(SearchStrategy.values()).toLowerCase());
+  }
+}
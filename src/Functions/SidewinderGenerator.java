@@ -0,0 +1,34 @@
+package Functions;
+
+import java.util.SplittableRandom;
+
+import Structures.GridGraph;
+
+// generates mazes with the sidewinder algorithm: each row is cut into runs of cells joined
+// east to west, and every run knocks down the south wall of one random cell in it
+// the bottom row is one run, a straight corridor. one pass, no memory beyond the grid
+public class SidewinderGenerator implements MazeGenerator {
+
+  public SidewinderGenerator() {
+  }
+
+  // generates an r x c maze, always the same one for the same seed
+  public GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    SplittableRandom rand = new SplittableRandom(seed);
+    for (int y = 0; y < r; y++) {
+      int runStart = grid.index(0, y);
+      for (int cell = runStart; cell < grid.index(0, y + 1); cell++) {
+        boolean last = y == r - 1;
+        if (grid.hasEast(cell) && (last || rand.nextBoolean())) {
+          grid.openEast(cell);
+        } else if (!last) {
+          // close the run, going down from a random cell of it
+          grid.openSouth(runStart + rand.nextInt(cell - runStart + 1));
+          runStart = cell + 1;
+        }
+      }
+    }
+    return grid.freeze();
+  }
+}
@@ -1,77 +1,283 @@
 package Functions;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import Structures.Edge;
+import Structures.GridGraph;
 import Structures.Vertex;
 import javalib.worldimages.Posn;
 
 // used to represent all information for the union find algorithm
+// vertices are numbered by their position, and the disjoint sets live in int arrays
+// (path compression + union by rank), so each find is close to constant time
+// the arrays (and the sorted edges of a grid) are kept between trees and only ever grow, so
+// one UnionFind building many trees allocates nothing once it has built the biggest
 public class UnionFind {
-  private HashMap<Posn, Posn> representatives = new HashMap<Posn, Posn>();
+  // largest weight range that is bucketed with a counting sort instead of a comparison sort
+  private static final int MAX_BUCKETS = 1 << 16;
+
   private ArrayList<Edge> edgesInTree = new ArrayList<Edge>();
-  private ArrayList<Edge> worklist = new ArrayList<Edge>();
+  // edges of the last Vertex tree, by set index * 2 + GridGraph.EAST/SOUTH of the
+  // upper-left end, so membership is a bit test instead of a scan of edgesInTree
+  private BitSet inTree = new BitSet();
+  private int[] parent = new int[0];
+  private byte[] rank = new byte[0];
+  // how many of parent/rank the last tree used
+  private int used;
+  // the edge ids of the last grid, sorted by weight
+  private int[] edges = new int[0];
+
+  // bounding box of the board, used to turn a posn into a set index
+  private int minX;
+  private int minY;
+  private int width;
 
   public UnionFind() {
   }
 
-  // checks if there is more than one tree with the hashmap
-  // helper for minSpanTree
-  private boolean moreThanOneTree() {
-    int x = 0;
-    for (Posn p : this.representatives.keySet()) {
-      if (this.representatives.get(p).equals(p)) {
-        x++;
-        if (x > 1) {
-          return true;
+  // generates the minimum spanning tree
+  // the edges are sorted once, then accepted in order until V - 1 of them join every vertex
+  public ArrayList<Edge> minSpanTree(ArrayList<Vertex> board) {
+    this.edgesInTree = new ArrayList<Edge>();
+    this.inTree = new BitSet();
+    if (board.isEmpty()) {
+      this.width = 0;
+      return this.edgesInTree;
+    }
+    this.index(board);
+
+    Edge[] sorted = this.sortByWeight(board);
+    int needed = board.size() - 1;
+    for (int i = 0; i < sorted.length && this.edgesInTree.size() < needed; i++) {
+      Edge e = sorted[i];
+      if (this.union(this.id(e.from.p), this.id(e.to.p))) {
+        this.edgesInTree.add(e);
+        int bit = this.treeBit(e);
+        if (bit >= 0) {
+          this.inTree.set(bit);
         }
       }
     }
-    return false;
+    return this.edgesInTree;
   }
 
-  // generates the minimum spanning tree
-  public ArrayList<Edge> minSpanTree(ArrayList<Vertex> board) {
-    // build representatives hashmap and worklist list
+  // checks if an edge (in either direction) is in the last tree built from a board,
+  // in constant time for edges between neighboring cells
+  public boolean isInTree(Edge e) {
+    if (!this.onBoard(e.from.p) || !this.onBoard(e.to.p)) {
+      return false;
+    }
+    int bit = this.treeBit(e);
+    if (bit >= 0) {
+      return this.inTree.get(bit);
+    }
+    // not between neighbors, so it has no bit
+    return this.edgesInTree.contains(e);
+  }
+
+  // filters the list of out edges of every vertex on the board to only
+  // keep those that are in the last tree built, filling outEdgesInTree
+  public void filterOutEdges(ArrayList<Vertex> board) {
     for (Vertex v : board) {
-      this.union(this.representatives, v.p, v.p);
       for (Edge e : v.outEdges) {
-        this.worklist.add(e);
+        if (this.isInTree(e)) {
+          v.outEdgesInTree.add(e);
+        }
       }
-      this.worklist.sort(new SortByWeight());
     }
-    // run until there is one tree left. that is the minimum spanning tree
-    while (this.moreThanOneTree()) {
-      Edge v = this.worklist.get(0);
-      Posn x = v.from.p;
-      Posn y = v.to.p;
+  }
 
-      while (!x.equals(this.representatives.get(x))) {
-        x = this.representatives.get(x);
+  // the inTree bit of an edge between horizontally or vertically neighboring cells,
+  // or -1 for any other edge
+  private int treeBit(Edge e) {
+    int a = this.id(e.from.p);
+    int b = this.id(e.to.p);
+    int lo = Math.min(a, b);
+    int hi = Math.max(a, b);
+    if (hi - lo == 1 && lo % this.width != this.width - 1) {
+      return lo * 2 + GridGraph.EAST;
+    } else if (hi - lo == this.width) {
+      return lo * 2 + GridGraph.SOUTH;
+    } else {
+      return -1;
+    }
+  }
+
+  // checks if a posn is inside the bounding box of the last board
+  private boolean onBoard(Posn p) {
+    return p.x >= this.minX && p.x < this.minX + this.width && p.y >= this.minY
+            && this.id(p) < this.used;
+  }
+
+  // generates the minimum spanning tree of a grid graph
+  // knocks down the wall of every edge in the tree and returns how many there are
+  public int minSpanTree(GridGraph grid) {
+    int size = grid.size();
+    this.reset(size);
+
+    int count = this.sortByWeight(grid);
+    int accepted = 0;
+    for (int i = 0; i < count && accepted < size - 1; i++) {
+      int e = this.edges[i];
+      if (this.union(e >>> 1, grid.other(e))) {
+        grid.open(e);
+        accepted++;
       }
+    }
+    return accepted;
+  }
+
+  // numbers the vertices of the board by position and puts each one in its own set
+  private void index(ArrayList<Vertex> board) {
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    this.minX = Integer.MAX_VALUE;
+    this.minY = Integer.MAX_VALUE;
+    for (Vertex v : board) {
+      this.minX = Math.min(this.minX, v.p.x);
+      this.minY = Math.min(this.minY, v.p.y);
+      maxX = Math.max(maxX, v.p.x);
+      maxY = Math.max(maxY, v.p.y);
+    }
+    this.width = maxX - this.minX + 1;
+    this.reset(this.width * (maxY - this.minY + 1));
+  }
+
+  // puts each of the first n ids in its own set
+  void reset(int n) {
+    if (this.parent.length < n) {
+      this.parent = new int[n];
+      this.rank = new byte[n];
+    } else {
+      Arrays.fill(this.rank, 0, n, (byte) 0);
+    }
+    this.used = n;
+    for (int i = 0; i < n; i++) {
+      this.parent[i] = i;
+    }
+  }
+
+  // the set index of a posn on the board
+  private int id(Posn p) {
+    return (p.y - this.minY) * this.width + (p.x - this.minX);
+  }
 
-      while (!y.equals(this.representatives.get(y))) {
-        y = this.representatives.get(y);
+  // collects every out edge of the board, stably sorted by weight
+  // small weight ranges (like the 0-99 weights from createBoard) use a counting sort
+  private Edge[] sortByWeight(ArrayList<Vertex> board) {
+    int count = 0;
+    int minW = Integer.MAX_VALUE;
+    int maxW = Integer.MIN_VALUE;
+    for (Vertex v : board) {
+      for (Edge e : v.outEdges) {
+        count++;
+        minW = Math.min(minW, e.weight);
+        maxW = Math.max(maxW, e.weight);
       }
+    }
 
-      if (x.equals(y)) {
-        this.worklist.remove(0);
-      } else {
-        this.edgesInTree.add(v);
-        this.union(this.representatives, x, y);
+    Edge[] sorted = new Edge[count];
+    if (count == 0) {
+      return sorted;
+    }
+    if ((long) maxW - minW >= MAX_BUCKETS) {
+      int i = 0;
+      for (Vertex v : board) {
+        for (Edge e : v.outEdges) {
+          sorted[i++] = e;
+        }
       }
+      // Arrays.sort on objects is stable, so ties keep their board order
+      Arrays.sort(sorted, new SortByWeight());
+      return sorted;
     }
-    return this.edgesInTree;
+
+    // starts[w] is where the first edge of weight minW + w goes
+    int[] starts = new int[maxW - minW + 2];
+    for (Vertex v : board) {
+      for (Edge e : v.outEdges) {
+        starts[e.weight - minW + 1]++;
+      }
+    }
+    for (int w = 1; w < starts.length; w++) {
+      starts[w] += starts[w - 1];
+    }
+    for (Vertex v : board) {
+      for (Edge e : v.outEdges) {
+        sorted[starts[e.weight - minW]++] = e;
+      }
+    }
+    return sorted;
   }
 
-  // makes an entry in the hashmap, or overrides an existing entry with that key
-  private void union(HashMap<Posn, Posn> r, Posn p1, Posn p2) {
-    r.put(p1, p2);
+  // collects the id of every edge in the grid into edges, stably sorted by weight, and
+  // returns how many there are
+  // grid weights are bytes, so this is always a counting sort
+  private int sortByWeight(GridGraph grid) {
+    int size = grid.size();
+    int[] starts = new int[Byte.MAX_VALUE + 2];
+    int count = 0;
+    for (int e = 0; e < size * 2; e++) {
+      if (grid.isEdge(e)) {
+        starts[grid.weight(e) + 1]++;
+        count++;
+      }
+    }
+    for (int w = 1; w < starts.length; w++) {
+      starts[w] += starts[w - 1];
+    }
+    if (this.edges.length < count) {
+      this.edges = new int[count];
+    }
+    for (int e = 0; e < size * 2; e++) {
+      if (grid.isEdge(e)) {
+        this.edges[starts[grid.weight(e)]++] = e;
+      }
+    }
+    return count;
+  }
+
+  // finds the representative of a set, halving the path on the way up
+  int find(int x) {
+    while (this.parent[x] != x) {
+      this.parent[x] = this.parent[this.parent[x]];
+      x = this.parent[x];
+    }
+    return x;
+  }
+
+  // finds the representative of a set without changing anything,
+  // so several threads can call it at once while no sets are being joined
+  int root(int x) {
+    while (this.parent[x] != x) {
+      x = this.parent[x];
+    }
+    return x;
+  }
+
+  // joins the sets of a and b, hanging the shallower tree under the deeper one
+  // returns false if they were already in the same set
+  boolean union(int a, int b) {
+    int x = this.find(a);
+    int y = this.find(b);
+    if (x == y) {
+      return false;
+    }
+    if (this.rank[x] < this.rank[y]) {
+      this.parent[x] = y;
+    } else if (this.rank[x] > this.rank[y]) {
+      this.parent[y] = x;
+    } else {
+      this.parent[y] = x;
+      this.rank[x]++;
+    }
+    return true;
   }
 
   //getter for edgesInTree
   public ArrayList<Edge> getEdgesInTree() {
     return this.edgesInTree;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package Functions;
+
+import java.util.SplittableRandom;
+
+import Structures.GridGraph;
+
+// generates mazes with Wilson's algorithm: from each cell not in the maze yet, walk at random
+// until the maze is reached, then add the walk with its loops erased
+// a loop is erased by only remembering the last step taken out of each cell, so the walk
+// costs no more memory than one int per cell. every maze is equally likely
+public class WilsonGenerator implements MazeGenerator {
+
+  public WilsonGenerator() {
+  }
+
+  // generates an r x c maze, always the same one for the same seed
+  public GridGraph generate(int r, int c, long seed) {
+    GridGraph grid = new GridGraph(r, c);
+    SplittableRandom rand = new SplittableRandom(seed);
+    int size = grid.size();
+    boolean[] inMaze = new boolean[size];
+    // the cell the walk last went to from each cell
+    int[] next = new int[size];
+    int[] neighbors = new int[4];
+
+    inMaze[rand.nextInt(size)] = true;
+    for (int start = 0; start < size; start++) {
+      // walk until the maze is reached
+      int cell = start;
+      while (!inMaze[cell]) {
+        int n = grid.neighbors(cell, neighbors);
+        next[cell] = neighbors[rand.nextInt(n)];
+        cell = next[cell];
+      }
+      // follow the last exits from the start, which skips every loop, and add the path
+      cell = start;
+      while (!inMaze[cell]) {
+        inMaze[cell] = true;
+        grid.open(grid.edge(cell, next[cell]));
+        cell = next[cell];
+      }
+    }
+    return grid.freeze();
+  }
+}
@@ -0,0 +1,53 @@
+package Maze;
+
+import java.awt.*;
+
+import javalib.worldimages.ComputedPixelImage;
+
+// a persistent picture of a maze, painted straight into the pixels of one image
+// only the cells and walls that change are repainted, and a frame places this single
+// image, so drawing costs the same however much of the search has been shown
+// cell (x, y) covers the pixels [size * x, size * x + size) in each direction, and the
+// walls sit on the first pixel column/row of the cell to their right/below
+class FrameBuffer {
+  final int size;
+  final int width;
+  final int height;
+  final ComputedPixelImage image;
+
+  FrameBuffer(int r, int c, int size) {
+    this.size = size;
+    this.width = size * c;
+    this.height = size * r;
+    this.image = new ComputedPixelImage(this.width, this.height);
+  }
+
+  // paints a whole cell
+  void fillCell(int x, int y, Color color) {
+    this.image.setPixels(this.size * x, this.size * y, this.size, this.size, color);
+  }
+
+  // paints the inside of a cell, leaving inset pixels around its top and left edges
+  // and inset - 1 around its bottom and right edges, so walls are never painted over
+  void fillInside(int x, int y, int inset, Color color) {
+    this.image.setPixels(this.size * x + inset, this.size * y + inset,
+            this.size - 2 * inset + 1, this.size - 2 * inset + 1, color);
+  }
+
+  // paints the wall below cell (x, y)
+  void wallBelow(int x, int y, Color color) {
+    int width = Math.min(this.size + 1, this.width - this.size * x);
+    this.image.setPixels(this.size * x, this.size * (y + 1), width, 1, color);
+  }
+
+  // paints the wall right of cell (x, y)
+  void wallRight(int x, int y, Color color) {
+    int height = Math.min(this.size + 1, this.height - this.size * y);
+    this.image.setPixels(this.size * (x + 1), this.size * y, 1, height, color);
+  }
+
+  // the color of a pixel
+  Color pixel(int x, int y) {
+    return this.image.getPixel(x, y);
+  }
+}
@@ -0,0 +1,343 @@
+package Maze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+import Functions.GeneratorType;
+import Functions.KruskalGenerator;
+import Functions.MazeGenerator;
+import Functions.MazeSolver;
+import Functions.SearchResult;
+import Functions.SearchStrategy;
+import Functions.BatchGenerator;
+import Functions.ChunkedSolver;
+import Functions.EllerGenerator;
+import Structures.ChunkStore;
+import Structures.GridGraph;
+import Structures.MazeFile;
+
+// generates and solves mazes without opening a window or drawing anything,
+// reporting timings and path lengths on stdout
+class Headless {
+  int rows = 30;
+  int cols = 50;
+  int count = 1;
+  SearchStrategy solver = SearchStrategy.BFS;
+  // the seed of the first maze, each one after uses MazeGenerator.nextSeed of the last
+  long seed = new SplittableRandom().nextLong();
+  GeneratorType generator = GeneratorType.KRUSKAL;
+  // more than 1 generates each kruskal maze in parallel, giving the same mazes, and
+  // deflates the bands of a --png picture in parallel
+  int threads = 1;
+  // a file to write the maze to, or to open it from instead of generating it, or null
+  String save;
+  String load;
+  // a file to keep a chunked maze in, for mazes bigger than memory, or null
+  String chunked;
+  int chunk = 256;
+  int cacheMb = 64;
+  // a picture of the top left corner of the chunked maze, or null
+  String render;
+  // pictures of the maze and its path to write, or null, with cells this many pixels wide
+  String png;
+  String svg;
+  int cellSize = Maze.CELL_SIZE;
+  // generates the count mazes on threads workers of a BatchGenerator, without solving them
+  boolean batch;
+  // whether --generator was given, since chunked mazes only come from eller
+  private boolean generatorGiven;
+  // cells bfs visited on the last maze
+  private int bfsVisited;
+
+  // reads the --rows, --cols, --count, --solver, --generator, --seed, --threads, --save,
+  // --load, --chunked, --chunk, --cache-mb, --render, --png, --svg, --cell-size and --batch
+  // options
+  Headless(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--headless":
+          break;
+        case "--rows":
+          this.rows = Headless.parsePositive(args, ++i);
+          break;
+        case "--cols":
+          this.cols = Headless.parsePositive(args, ++i);
+          break;
+        case "--count":
+          this.count = Headless.parsePositive(args, ++i);
+          break;
+        case "--solver":
+          this.solver = SearchStrategy.parse(Headless.value(args, ++i));
+          break;
+        case "--generator":
+          this.generator = GeneratorType.parse(Headless.value(args, ++i));
+          this.generatorGiven = true;
+          break;
+        case "--seed":
+          this.seed = Long.parseLong(Headless.value(args, ++i));
+          break;
+        case "--threads":
+          this.threads = Headless.parsePositive(args, ++i);
+          break;
+        case "--save":
+          this.save = Headless.value(args, ++i);
+          break;
+        case "--load":
+          this.load = Headless.value(args, ++i);
+          break;
+        case "--chunked":
+          this.chunked = Headless.value(args, ++i);
+          break;
+        case "--chunk":
+          this.chunk = Headless.parsePositive(args, ++i);
+          break;
+        case "--cache-mb":
+          this.cacheMb = Headless.parsePositive(args, ++i);
+          break;
+        case "--render":
+          this.render = Headless.value(args, ++i);
+          break;
+        case "--png":
+          this.png = Headless.value(args, ++i);
+          break;
+        case "--svg":
+          this.svg = Headless.value(args, ++i);
+          break;
+        case "--cell-size":
+          this.cellSize = Headless.parsePositive(args, ++i);
+          break;
+        case "--batch":
+          this.batch = true;
+          break;
+        default:
+          throw new IllegalArgumentException("\nUnknown option " + args[i]
+                  + ". Options: --headless --rows R --cols C --count N --solver"
+                  + " bfs|dfs|astar|greedy|bidirectional"
+                  + " --generator G --seed S --threads T --save FILE --load FILE --chunked FILE"
+                  + " --chunk 256 --cache-mb 64 --render PNG --png FILE --svg FILE --cell-size 11"
+                  + " --batch");
+      }
+    }
+  }
+
+  // the value following an option
+  private static String value(String[] args, int i) {
+    if (i >= args.length) {
+      throw new IllegalArgumentException("\nMissing value for " + args[i - 1]);
+    }
+    return args[i];
+  }
+
+  // the positive integer following an option
+  private static int parsePositive(String[] args, int i) {
+    int n = Integer.parseInt(Headless.value(args, i));
+    if (n < 1) {
+      throw new IllegalArgumentException("\n" + args[i - 1] + " must be at least 1");
+    }
+    return n;
+  }
+
+  // the name of the solver, the way it is written on the command line
+  private String name() {
+    return this.solver.name().toLowerCase();
+  }
+
+  // generates and solves count mazes, printing one line per maze and a summary
+  // with --load, the maze is opened from a file instead, and the time is how long that took
+  // with --png or --svg, the maze and its path are drawn to a file once solved
+  void run() throws IOException {
+    if (this.chunked != null) {
+      this.runChunked();
+      return;
+    }
+    if (this.batch) {
+      this.runBatch();
+      return;
+    }
+    if (this.threads > 1 && this.generator != GeneratorType.KRUSKAL && this.png == null) {
+      throw new IllegalArgumentException("\n--threads only applies to the kruskal generator, "
+              + "--png and --batch");
+    }
+    if ((this.save != null || this.load != null) && this.count != 1) {
+      throw new IllegalArgumentException("\n--save and --load handle one maze, use --count 1");
+    }
+    // the loaded grid is a view of its file, which the writer would empty before copying it
+    if (this.save != null && this.load != null && Files.exists(Paths.get(this.save))
+            && Files.exists(Paths.get(this.load))
+            && Files.isSameFile(Paths.get(this.save), Paths.get(this.load))) {
+      throw new IllegalArgumentException("\n--save " + this.save + " is the --load file, "
+              + "save the maze to another file");
+    }
+    if ((this.png != null || this.svg != null) && this.count != 1) {
+      throw new IllegalArgumentException("\n--png and --svg draw one maze, use --count 1");
+    }
+    ForkJoinPool pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+    MazeGenerator generator = pool == null || this.generator != GeneratorType.KRUSKAL
+            ? this.generator.generator() : new KruskalGenerator(pool);
+    long totalGenerate = 0;
+    long totalSolve = 0;
+    long totalPath = 0;
+    long totalVisited = 0;
+    // cells a breadth first search visits on the same mazes, to compare other solvers with
+    long totalBfsVisited = 0;
+    long seed = this.seed;
+    String label = this.generator.label();
+
+    for (int i = 0; i < this.count; i++) {
+      long start = System.nanoTime();
+      GridGraph grid;
+      if (this.load != null) {
+        MazeFile file = MazeFile.open(Paths.get(this.load));
+        grid = file.grid;
+        seed = file.seed;
+        label = file.generator;
+      } else {
+        grid = generator.generate(this.rows, this.cols, seed);
+      }
+      long generated = System.nanoTime();
+      if (this.save != null) {
+        MazeFile.write(Paths.get(this.save), grid, seed, label);
+      }
+      SearchResult result = new MazeSolver(grid).solve(0, grid.size() - 1, this.solver);
+
+      totalGenerate += generated - start;
+      totalSolve += result.nanos;
+      totalPath += result.path.length;
+      totalVisited += result.visited;
+      System.out.printf("maze %d: %dx%d seed %d %s %.3f ms, %s %.3f ms, visited %d%s, path %d%n",
+              i + 1, grid.r, grid.c, seed, label, (generated - start) / 1e6,
+              this.name(), result.nanos / 1e6, result.visited, this.comparedToBfs(grid, result),
+              result.path.length);
+      totalBfsVisited += this.bfsVisited;
+      seed = MazeGenerator.nextSeed(seed);
+      this.export(grid, result.path, pool);
+    }
+    if (pool != null) {
+      pool.shutdown();
+    }
+
+    System.out.printf("total: %d mazes, %s %.3f ms (avg %.3f), %s %.3f ms (avg %.3f), "
+                    + "avg visited %.1f, avg path %.1f%n",
+            this.count, label, totalGenerate / 1e6,
+            totalGenerate / 1e6 / this.count, this.name(), totalSolve / 1e6,
+            totalSolve / 1e6 / this.count,
+            (double) totalVisited / this.count, (double) totalPath / this.count);
+    if (this.solver != SearchStrategy.BFS) {
+      System.out.printf("%s visited %.1f%% of the cells bfs did (avg %.1f)%n", this.name(),
+              100.0 * totalVisited / totalBfsVisited, (double) totalBfsVisited / this.count);
+    }
+  }
+
+  // writes the --png and --svg pictures of a maze and its path, if they were asked for
+  private void export(GridGraph grid, int[] path, ForkJoinPool pool) throws IOException {
+    if (this.png == null && this.svg == null) {
+      return;
+    }
+    MazeExporter exporter = new MazeExporter(grid, path, this.cellSize);
+    if (this.png != null) {
+      long start = System.nanoTime();
+      long bytes = exporter.png(Paths.get(this.png), pool, Deflater.DEFAULT_COMPRESSION);
+      System.out.printf("png %dx%d pixels, %d bytes, %.3f ms%n", exporter.width(),
+              exporter.height(), bytes, (System.nanoTime() - start) / 1e6);
+    }
+    if (this.svg != null) {
+      long start = System.nanoTime();
+      long bytes = exporter.svg(Paths.get(this.svg));
+      System.out.printf("svg %d bytes, %.3f ms%n", bytes, (System.nanoTime() - start) / 1e6);
+    }
+  }
+
+  // when the solver is not bfs, solves the maze again with bfs and describes how many
+  // cells the solver visited next to it, keeping bfs's count in bfsVisited
+  private String comparedToBfs(GridGraph grid, SearchResult result) {
+    if (this.solver == SearchStrategy.BFS) {
+      this.bfsVisited = result.visited;
+      return "";
+    }
+    this.bfsVisited = new MazeSolver(grid).solve(0, grid.size() - 1, SearchStrategy.BFS).visited;
+    return String.format(" (%.1f%% of bfs %d)", 100.0 * result.visited / this.bfsVisited,
+            this.bfsVisited);
+  }
+
+  // generates the count mazes through a BatchGenerator on threads workers, each seed
+  // MazeGenerator.nextSeed of the one before, and prints how many it made a second
+  private void runBatch() {
+    if (this.save != null || this.load != null || this.png != null || this.svg != null) {
+      throw new IllegalArgumentException("\n--batch only generates, without --save, --load, "
+              + "--png or --svg");
+    }
+    AtomicLong passages = new AtomicLong();
+    long start = System.nanoTime();
+    BatchGenerator batch = new BatchGenerator(this.threads, 1024, (job, maze) -> {
+      long open = 0;
+      for (int cell = 0; cell < maze.size(); cell++) {
+        open += (maze.isOpenEast(cell) ? 1 : 0) + (maze.isOpenSouth(cell) ? 1 : 0);
+      }
+      passages.addAndGet(open);
+    });
+    // closed however the submits end, so the workers finish the jobs already queued
+    try (batch) {
+      long seed = this.seed;
+      for (int i = 0; i < this.count; i++) {
+        batch.submit(new BatchGenerator.Job(this.generator, this.rows, this.cols, seed));
+        seed = MazeGenerator.nextSeed(seed);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted generating a batch", e);
+    }
+    long nanos = System.nanoTime() - start;
+    System.out.printf("batch: %d %dx%d %s mazes on %d threads, %.3f ms, %.0f mazes/s, "
+                    + "%.0f cells/s, %d passages%n", batch.generated(), this.rows, this.cols,
+            this.generator.label(), this.threads, nanos / 1e6, batch.generated() * 1e9 / nanos,
+            batch.cells() * 1e9 / nanos, passages.get());
+  }
+
+  // generates one maze into a chunk store, with at most --cache-mb of it in memory at once,
+  // solves it corner to corner, and prints the cache's counters after each step
+  private void runChunked() throws IOException {
+    if (this.generatorGiven && this.generator != GeneratorType.ELLER) {
+      throw new IllegalArgumentException("\n--chunked mazes are generated with eller");
+    }
+    if (this.solver != SearchStrategy.BFS && this.solver != SearchStrategy.DFS) {
+      throw new IllegalArgumentException("\n--chunked mazes are solved with bfs or dfs");
+    }
+    if (this.count != 1 || this.save != null || this.load != null) {
+      throw new IllegalArgumentException("\n--chunked handles one maze, without --save or --load");
+    }
+    try (ChunkStore store = ChunkStore.create(Paths.get(this.chunked), this.rows, this.cols,
+            this.chunk, this.seed, GeneratorType.ELLER.label(), this.cacheMb * 1048576L)) {
+      System.out.printf("%dx%d maze in %d chunks of %dx%d, %d in memory at once%n", store.r,
+              store.c, store.chunks(), store.side, store.side, store.capacity());
+      long start = System.nanoTime();
+      new EllerGenerator(this.cols, this.seed).generate(this.rows, store::row);
+      store.flush();
+      System.out.printf("eller %.3f ms: %s%n", (System.nanoTime() - start) / 1e6, store.stats());
+
+      store.resetStats();
+      ChunkedSolver solver = new ChunkedSolver(store);
+      start = System.nanoTime();
+      long steps = this.solver == SearchStrategy.BFS
+              ? solver.bfs(0, 0, this.cols - 1, this.rows - 1)
+              : solver.dfs(0, 0, this.cols - 1, this.rows - 1);
+      System.out.printf("%s %.3f ms, visited %d, path %d: %s%n", this.name(),
+              (System.nanoTime() - start) / 1e6, solver.getVisitedCount(), steps + 1,
+              store.stats());
+
+      if (this.render != null) {
+        store.resetStats();
+        // a very long path is left off rather than listed on the heap
+        long[] path = steps < 1_000_000 ? solver.path() : new long[0];
+        FrameBuffer frame = Viewport.render(store, 0, 0, 200, 200, 4, path);
+        frame.image.saveImage(this.render);
+        System.out.printf("rendered %dx%d cells to %s: %s%n", frame.height / frame.size,
+                frame.width / frame.size, this.render, store.stats());
+      }
+    }
+  }
+}
@@ -2,181 +2,221 @@ package Maze;
 
 import tester.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Random;
-
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+import javax.imageio.ImageIO;
+
+import Functions.BatchGenerator;
+import Functions.ChunkedSolver;
+import Functions.CorridorTree;
+import Functions.EllerGenerator;
+import Functions.BinaryTreeGenerator;
+import Functions.FilterKruskal;
+import Functions.GeneratorType;
+import Functions.KruskalGenerator;
+import Functions.MazeGenerator;
+import Functions.MazeSink;
+import Functions.MazeSolver;
+import Functions.ParallelSolver;
+import Functions.PrimGenerator;
+import Functions.SearchResult;
+import Functions.SearchStrategy;
 import Functions.UnionFind;
+import Functions.WilsonGenerator;
 import Structures.Edge;
+import Structures.GridGraph;
+import Structures.ConcurrentIntQueue;
 import Structures.ICollection;
+import Structures.IntCollection;
+import Structures.IntHeap;
+import Structures.IntQueue;
+import Structures.IntStack;
+import Structures.MHeap;
 import Structures.MQueue;
 import Structures.MStack;
+import Structures.ChunkStore;
+import Structures.MazeFile;
+import Structures.RangeMin;
 import Structures.Vertex;
 import javalib.impworld.World;
 import javalib.impworld.WorldScene;
-import javalib.worldimages.LineImage;
-import javalib.worldimages.OutlineMode;
 import javalib.worldimages.Posn;
-import javalib.worldimages.RectangleImage;
+import javalib.worldimages.TextImage;
 
 //Represents the maze
-// handles constructing and solving it
+// a view over a maze from MazeGenerator and a search from MazeSolver:
+// it only draws them and reacts to keys and ticks
+// a search is solved all at once when its key is pressed, and the ticks replay the
+// order it visited cells in, so animation speed does not limit solving
+// cells are indices into a GridGraph (y * c + x), not objects
 public class Maze extends World {
   public int r;
   public int c;
+  // the seed of the maze on screen, "r" moves on to MazeGenerator.nextSeed of it
+  public long seed;
+  // the algorithm new mazes are generated with
+  private MazeGenerator generator;
   public static int CELL_SIZE = 11;
-  private UnionFind uf;
-  private WorldScene scene;
-  private ArrayList<Vertex> board;
-  private ICollection<Vertex> worklist;
+  // height of the strip under the maze that shows the animation speed
+  public static int STATUS_HEIGHT = 14;
+  // how often the speed shown in the status strip is refreshed
+  private static final long STATUS_INTERVAL = 250_000_000L;
+  private FrameBuffer frame;
+  // the search colors, built once since r and c never change
+  private Palette palette;
+  // the text of the status strip
+  private String status;
+  private GridGraph board;
+  private MazeSolver solver;
+  private SearchResult result;
+  // how many cells of result.order have been drawn
+  private int replayed;
   private Boolean searching;
   private Boolean continueSearch;
   private Boolean solved;
-  private HashMap<Vertex, Vertex> toFrom;
-  private ArrayList<Vertex> shortPath;
+  private int[] shortPath;
+  // how many cells of shortPath are still to be drawn, from the end back to the start
+  private int shortPathLeft;
   private String searchType;
+  // cells drawn per tick, unless adaptive
+  private int stepsPerTick = 1;
+  // when adaptive, each tick draws as many cells as fit in frameBudget nanoseconds
+  private Boolean adaptive = false;
+  private long frameBudget = 4_000_000L;
+  // cells drawn since the speed was last measured, and when that was
+  private long drawnSinceMeasure;
+  private long measuredAt;
 
 
   public Maze(int r, int c) {
+    this(r, c, new SplittableRandom().nextLong());
+  }
+
+  // shows the maze generated from the given seed
+  public Maze(int r, int c, long seed) {
+    this(r, c, seed, new KruskalGenerator());
+  }
+
+  // shows the maze the given generator makes from the given seed
+  public Maze(int r, int c, long seed, MazeGenerator generator) {
     this.r = r;
     this.c = c;
+    this.seed = seed;
+    this.generator = generator;
 
     this.initialize();
   }
 
-  // initializes the maze: sets fields, creates maze
+  // shows a maze that has already been generated
+  // its seed is not known, so "r" starts from a random one
+  public Maze(GridGraph board) {
+    this.r = board.r;
+    this.c = board.c;
+    this.seed = new SplittableRandom().nextLong();
+    this.generator = new KruskalGenerator();
+
+    this.initialize(board);
+  }
+
+  // initializes the maze: sets fields, creates maze from the seed
   private void initialize() {
-    this.uf = new UnionFind();
-    this.board = new ArrayList<Vertex>();
-    this.worklist = new MQueue<Vertex>();
+    this.initialize(this.generator.generate(this.r, this.c, this.seed));
+  }
+
+  // sets fields and draws the given maze
+  private void initialize(GridGraph board) {
+    this.board = board;
+    this.solver = new MazeSolver(this.board);
+    this.result = null;
+    this.replayed = 0;
     this.searching = false;
     this.continueSearch = false;
     this.solved = false;
-    this.toFrom = new HashMap<Vertex, Vertex>();
-    this.shortPath = new ArrayList<Vertex>();
+    this.shortPath = new int[0];
+    this.shortPathLeft = 0;
     this.searchType = "";
 
-    this.scene = new WorldScene(Maze.CELL_SIZE * this.c, Maze.CELL_SIZE * this.r);
+    this.frame = new FrameBuffer(this.r, this.c, Maze.CELL_SIZE);
+    if (this.palette == null) {
+      this.palette = new Palette(this.r, this.c);
+    }
+    this.status = "";
+    this.drawnSinceMeasure = 0;
+    this.measuredAt = System.nanoTime();
 
-    this.createBoard();
-    this.uf.minSpanTree(this.board);
-    this.filterOutEdges();
     this.drawCells();
     this.drawWalls();
   }
 
-  // generates all the vertices for the maze stored in a list of vertices (board)
-  // also adds edge connections to each vertex's outEdge list
-  private void createBoard() {
-    for (int i = 0; i < this.r; i++) {
-      for (int j = 0; j < this.c; j++) {
-        // if top left, green
-        if (i == 0 && j == 0) {
-          this.board.add(new Vertex(new Posn(j, i), Color.GREEN));
-        }
-        // if bottom right, magenta
-        else if (i == this.r - 1 && j == this.c - 1) {
-          this.board.add(new Vertex(new Posn(j, i), Color.MAGENTA));
-        }
-        // else, gray
-        else {
-          this.board.add(new Vertex(new Posn(j, i), Color.LIGHT_GRAY));
-        }
-      }
-    }
-
-    // add edge connections to outedges
-    for (int i = 0; i < this.board.size(); i++) {
-      Vertex v = this.board.get(i);
-
-      // add edge with left vertex of v
-      if (v.p.x != 0) {
-        v.addEdge(this.board.get(i - 1), new Random().nextInt(100));
-      }
-
-      // add edge with right node of v
-      if (v.p.x != this.c - 1) {
-        v.addEdge(this.board.get(i + 1), new Random().nextInt(100));
-      }
-
-      // add edge with below node of v
-      if (v.p.y != this.r - 1) {
-        v.addEdge(this.board.get(i + this.c), new Random().nextInt(100));
-      }
-
-      // add edge with top node of v
-      if (v.p.y != 0) {
-        v.addEdge(this.board.get(i - this.c), new Random().nextInt(100));
-      }
-    }
-  }
-
-  // filters the list of out edges from next to only
-  // keep those that are in the minimum spanning tree
-  private void filterOutEdges() {
-    for (Vertex v : this.board) {
-      for (Edge e : v.outEdges) {
-        if (this.uf.getEdgesInTree().contains(e)) {
-          v.outEdgesInTree.add(e);
-        }
-      }
+  // the color of a cell before any search: green start, magenta end, gray otherwise
+  private Color cellColor(int cell) {
+    if (cell == 0) {
+      return Color.GREEN;
+    } else if (cell == this.board.size() - 1) {
+      return Color.MAGENTA;
+    } else {
+      return Color.LIGHT_GRAY;
     }
   }
 
   // draws the cells
   private void drawCells() {
-    RectangleImage cell;
-    for (Vertex v : this.board) {
-      cell = new RectangleImage(Maze.CELL_SIZE, Maze.CELL_SIZE, OutlineMode.SOLID, v.color);
-      scene.placeImageXY(cell, v.p.x * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2) + 1,
-              v.p.y * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2) + 1);
+    for (int i = 0; i < this.board.size(); i++) {
+      this.frame.fillCell(this.board.x(i), this.board.y(i), this.cellColor(i));
     }
   }
 
   // draws the walls where there is not an edge in the minimum spanning tree
   private void drawWalls() {
-    LineImage hLine; // horizontal line
-    LineImage vLine; // vertical line
-
     // go row by row, check bottom connections. if no connection, draw a
     // horizontal line on the bottom
     for (int i = 0; i < this.r - 1; i++) {
       for (int j = 0; j < this.c; j++) {
-        if (!this.uf.getEdgesInTree().contains(new Edge(new Vertex(new Posn(j, i), Color.WHITE),
-                new Vertex(new Posn(j, i + 1), Color.WHITE), 0))) {
-          hLine = new LineImage(new Posn(Maze.CELL_SIZE, 0), Color.BLACK);
-          scene.placeImageXY(hLine, (Maze.CELL_SIZE * j + (Maze.CELL_SIZE / 2) + 1),
-                  (Maze.CELL_SIZE * (i + 1)));
-          // place hline below
+        if (!this.board.isOpenSouth(this.board.index(j, i))) {
+          this.frame.wallBelow(j, i, Color.BLACK);
         }
       }
     }
 
     // go column by column, check right connection, if no connection, draw a
-    // vertical line on te right
+    // vertical line on the right
     for (int i = 0; i < this.r; i++) {
       for (int j = 0; j < this.c - 1; j++) {
-        if (!this.uf.getEdgesInTree().contains(new Edge(new Vertex(new Posn(j, i), Color.WHITE),
-                new Vertex(new Posn(j + 1, i), Color.WHITE), 0))) {
-          vLine = new LineImage(new Posn(0, Maze.CELL_SIZE), Color.BLACK);
-          scene.placeImageXY(vLine, (Maze.CELL_SIZE * (j + 1)),
-                  (Maze.CELL_SIZE * i + (Maze.CELL_SIZE / 2) + 1));
-          // place vline right
+        if (!this.board.isOpenEast(this.board.index(j, i))) {
+          this.frame.wallRight(j, i, Color.BLACK);
         }
       }
     }
   }
 
   @Override
-  // draws the scene
+  // draws the scene: the frame buffer and the status strip under it
+  // always two images, however far the search has got
   public WorldScene makeScene() {
+    WorldScene scene = new WorldScene(this.frame.width, this.frame.height + Maze.STATUS_HEIGHT);
+    scene.placeImageXY(this.frame.image, this.frame.width / 2, this.frame.height / 2);
+    scene.placeImageXY(new TextImage(this.status, 10, Color.BLACK), this.frame.width / 2,
+            this.frame.height + Maze.STATUS_HEIGHT / 2 + 1);
     return scene;
   }
 
   @Override
-  // reacts to a user pressing the "b", "d", " ", or "r" keys,
-  // setting up the draw methods to show a bfs or dfs,
-  // to pause/resume the search, or to reset the maze, respectively
+  // reacts to a user pressing the "b", "d", "s", "g", "t", " ", or "r" keys,
+  // setting up the draw methods to show a bfs, dfs, A*, greedy best first or two way search,
+  // to pause/resume the search, or to move on to the next seed's maze, respectively
+  // "+" (or "=") and "-" speed the animation up and down, "a" toggles adaptive speed
   public void onKeyEvent(String key) {
     if (key.equals("b") && searching == false) {
       this.searchType = key;
@@ -188,110 +228,156 @@ public class Maze extends World {
       this.continueSearch = true;
       this.searching = true;
       this.dfs();
+    } else if (key.equals("s") && searching == false) {
+      this.searchType = key;
+      this.continueSearch = true;
+      this.searching = true;
+      this.astar();
+    } else if (key.equals("g") && searching == false) {
+      this.searchType = key;
+      this.continueSearch = true;
+      this.searching = true;
+      this.greedy();
+    } else if (key.equals("t") && searching == false) {
+      this.searchType = key;
+      this.continueSearch = true;
+      this.searching = true;
+      this.bidirectional();
     } else if (key.equals(" ") && this.solved == false) {
       this.continueSearch = !this.continueSearch;
     } else if (key.equals("r")) {
+      this.seed = MazeGenerator.nextSeed(this.seed);
       initialize();
+    } else if (key.equals("+") || key.equals("=")) {
+      this.changeSpeed(true);
+    } else if (key.equals("-")) {
+      this.changeSpeed(false);
+    } else if (key.equals("a")) {
+      this.adaptive = !this.adaptive;
+      this.drawStatus(0);
+    }
+  }
+
+  // doubles or halves the animation speed: the steps per tick,
+  // or the frame budget when adaptive
+  private void changeSpeed(boolean faster) {
+    if (this.adaptive) {
+      this.frameBudget = faster ? Math.min(this.frameBudget * 2, 64_000_000L)
+              : Math.max(this.frameBudget / 2, 250_000L);
+    } else {
+      this.stepsPerTick = faster ? Math.min(this.stepsPerTick * 2, 1 << 20)
+              : Math.max(this.stepsPerTick / 2, 1);
     }
+    this.drawStatus(0);
+  }
+
+  // writes the animation settings and the measured cells per second in the status strip
+  private void drawStatus(double cellsPerSecond) {
+    String speed = this.adaptive
+            ? String.format("adaptive, %.2f ms per frame", this.frameBudget / 1e6)
+            : this.stepsPerTick + (this.stepsPerTick == 1 ? " cell" : " cells") + " per tick";
+    this.status = String.format("%s | %.0f cells/s   (+/- speed, a adaptive)", speed,
+            cellsPerSecond);
   }
 
   // searches the maze according to a breadth first search
-  // uses a queue input
   private void bfs() {
-    Vertex from = this.board.get(0);
-    this.worklist = new MQueue<Vertex>();
-    // initialize the worklist with the starting (from) vertex
-    this.worklist.add(from);
+    this.search(SearchStrategy.BFS);
   }
 
   // searches the maze according to a depth first search
-  // uses a stack input
   private void dfs() {
-    Vertex from = this.board.get(0);
-    this.worklist = new MStack<Vertex>();
-    // initialize the worklist with the starting (from) vertex
-    this.worklist.add(from);
-  }
-
-  // helper for bfs and dfs methods
-  // mutates the visited list of vertices according to
-  // the desired search method
-  private void searchHelper(ICollection<Vertex> worklist) {
-    Vertex from = this.board.get(0);
-    Vertex to = this.board.get(this.board.size() - 1);
-    // run while worklist is NOT empty
-    if (!worklist.isEmpty()) {
-      Vertex next = worklist.remove();
-      if (next.equals(to)) { // reached the end
-        // reset worklist
-        this.worklist = new MQueue<Vertex>();
-        // make final cell colored
-        scene.placeImageXY(new RectangleImage(Maze.CELL_SIZE - 1, Maze.CELL_SIZE - 1,
-                        OutlineMode.SOLID, new Color(Math.max(225, 255-(int)(255 * ((double)next.p.x / (double)this.c))),140, Math.max(0, 255-(int)(225 * ((double)next.p.y / (double)this.r))))),
-                Maze.CELL_SIZE * next.p.x + (Maze.CELL_SIZE / 2) + 1,
-                Maze.CELL_SIZE * next.p.y + (Maze.CELL_SIZE / 2) + 1);
-        // stop the search
-        this.continueSearch = false;
-
-        // make the path to solve the maze and draw it
-        this.makeShortPath(to, from);
-
-      } else if (next.visited == true) {
-        // do nothing, we have already been here
-      } else {
-        // place dynamically colored cells along the working path
-        scene.placeImageXY(new RectangleImage(Maze.CELL_SIZE - 1, Maze.CELL_SIZE - 1,
-                        OutlineMode.SOLID, new Color(255-(int)(50 * ((double)next.p.x / (double)this.c)),140, 255-(int)(225 * ((double)next.p.y / (double)this.r)))),
-                Maze.CELL_SIZE * next.p.x + (Maze.CELL_SIZE / 2) + 1,
-                Maze.CELL_SIZE * next.p.y + (Maze.CELL_SIZE / 2) + 1);
-
-        // add all the neighbors of next to the worklist so they will be processed
-        // construct the hashMap
-        for (Edge e : next.outEdgesInTree) {
-          // only add if they have not been visited
-          if (e.to.visited == false) {
-            worklist.add(e.to);
-            this.toFrom.put(e.to, next);
-          }
-        }
-        // make next visited, since we just dealt with it (visited it)
-        next.visited = true;
-      }
-    }
+    this.search(SearchStrategy.DFS);
   }
 
-  // draws the shortest path to complete the maze
-  private void animateShortPath() {
-    RectangleImage cell = new RectangleImage(Maze.CELL_SIZE - 3, Maze.CELL_SIZE - 3,
-            OutlineMode.SOLID, Color.WHITE);
-    // draw first
-    Vertex v = this.shortPath.get(0);
-    scene.placeImageXY(cell, v.p.x * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2) + 1,
-            v.p.y * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2) + 1);
-    // remove first from the shortPath list
-    this.shortPath.remove(0);
-
-  }
-
-  // makes the shortest path to complete the maze
-  private void makeShortPath(Vertex last, Vertex start) {
-    if (!last.equals(start)) {
-      this.shortPath.add(last);
-      makeShortPath(this.toFrom.get(last), start);
+  // searches the maze with A*, guided by the manhattan distance to the end
+  private void astar() {
+    this.search(SearchStrategy.ASTAR);
+  }
+
+  // searches the maze always heading for the cell closest to the end
+  private void greedy() {
+    this.search(SearchStrategy.GREEDY);
+  }
+
+  // searches the maze breadth first from both ends until the two searches meet
+  private void bidirectional() {
+    this.search(SearchStrategy.BIDIRECTIONAL);
+  }
+
+  // solves the maze right away, recording the visit order for onTick to replay
+  private void search(SearchStrategy strategy) {
+    this.result = this.solver.solve(0, this.board.size() - 1, strategy, true);
+    this.replayed = 0;
+  }
+
+  // helper for the search methods
+  // replays the next cell the search visited and colors it
+  private void searchHelper() {
+    if (this.result == null || this.replayed >= this.result.order.length) {
+      // nothing left to replay
+      this.continueSearch = false;
+      return;
+    }
+    int next = this.result.order[this.replayed];
+    this.replayed++;
+    int x = this.board.x(next);
+    int y = this.board.y(next);
+    if (this.replayed == this.result.order.length && this.result.path.length > 0) {
+      // reached the end
+      // make final cell colored
+      this.frame.fillInside(x, y, 1, this.palette.found(x, y));
+      // stop the search
+      this.continueSearch = false;
+
+      // get the path to solve the maze so it can be drawn
+      this.shortPath = this.result.path;
+      this.shortPathLeft = this.shortPath.length;
     } else {
-      this.shortPath.add(start);
+      // place dynamically colored cells along the working path,
+      // in the second gradient if they were reached from the end
+      this.frame.fillInside(x, y, 1, this.result.fromGoal.get(next) ? this.palette.back(x, y)
+              : this.palette.search(x, y));
     }
   }
 
+  // draws the shortest path to complete the maze, from the end back to the start
+  private void animateShortPath() {
+    // draw the last cell not drawn yet
+    int v = this.shortPath[this.shortPathLeft - 1];
+    this.frame.fillInside(this.board.x(v), this.board.y(v), 2, Color.WHITE);
+    // move on to the cell before it
+    this.shortPathLeft--;
+
+  }
+
   @Override
   // runs on tick, checks if it should still run the search
+  // draws stepsPerTick cells of the search or path, or when adaptive
+  // as many as fit in the frame budget
   public void onTick() {
-    if (this.continueSearch) {
-      this.searchHelper(this.worklist);
+    long began = System.nanoTime();
+    int steps = 0;
+    while ((this.continueSearch || this.shortPathLeft > 0)
+            && (this.adaptive ? steps == 0 || System.nanoTime() - began < this.frameBudget
+            : steps < this.stepsPerTick)) {
+      if (this.continueSearch) {
+        this.searchHelper();
+      } else {
+        this.solved = true;
+        this.animateShortPath();
+      }
+      steps++;
     }
-    if (!this.shortPath.isEmpty()) {
-      this.solved = true;
-      this.animateShortPath();
+
+    this.drawnSinceMeasure += steps;
+    long now = System.nanoTime();
+    if (now - this.measuredAt >= Maze.STATUS_INTERVAL && this.drawnSinceMeasure > 0) {
+      this.drawStatus(this.drawnSinceMeasure * 1e9 / (now - this.measuredAt));
+      this.drawnSinceMeasure = 0;
+      this.measuredAt = now;
+    } else if (this.drawnSinceMeasure == 0) {
+      this.measuredAt = now;
     }
   }
 }
@@ -306,7 +392,7 @@ class ExamplesMaze {
 
   Maze maze1 = new Maze(60, 100);
 
-  Maze mazeSeed = new Maze(60, 100);
+  Maze mazeSeed = new Maze(60, 100, 2023);
 
   Vertex v1 = new Vertex(new Posn(4, 4), Color.WHITE);
   Vertex v1Right = new Vertex(new Posn(5, 4), Color.WHITE);
@@ -319,19 +405,9 @@ class ExamplesMaze {
   Edge edge3 = new Edge(this.v1, this.v1Left, 69);
   Edge edge4 = new Edge(this.v1, this.v1Right, 420);
 
-  Maze mazeSeed2 = new Maze(4, 4);
-  LineImage vwall = new LineImage(new Posn(0, Maze.CELL_SIZE), Color.BLACK);
-  LineImage hwall = new LineImage(new Posn(Maze.CELL_SIZE, 0), Color.BLACK);
-  RectangleImage cellStart = new RectangleImage(Maze.CELL_SIZE,
-      Maze.CELL_SIZE, OutlineMode.SOLID, Color.GREEN);
-  RectangleImage cellOther = new RectangleImage(Maze.CELL_SIZE,
-      Maze.CELL_SIZE, OutlineMode.SOLID, Color.LIGHT_GRAY);
-  RectangleImage cellEnd = new RectangleImage(Maze.CELL_SIZE,
-      Maze.CELL_SIZE, OutlineMode.SOLID, Color.MAGENTA);
-
-  Maze maze2x2Seed = new Maze(2, 2);
-  // cellStart, cellOther, cellEnd
-  // vwall (x1)
+  Maze mazeSeed2 = new Maze(4, 4, 7);
+
+  Maze maze2x2Seed = new Maze(2, 2, 1);
   Vertex tl = new Vertex(new Posn(0, 0), Color.GREEN);
   Vertex tr = new Vertex(new Posn(0, 1), Color.LIGHT_GRAY);
   Vertex bl = new Vertex(new Posn(1, 0), Color.LIGHT_GRAY);
@@ -349,7 +425,7 @@ class ExamplesMaze {
     queue1 = new MQueue<String>();
     stack1 = new MStack<String>();
     maze1 = new Maze(60, 100);
-    mazeSeed = new Maze(60, 100);
+    mazeSeed = new Maze(60, 100, 2023);
     v1 = new Vertex(new Posn(4, 4), Color.WHITE);
     v1Right = new Vertex(new Posn(5, 4), Color.WHITE);
     v1Left = new Vertex(new Posn(3, 4), Color.WHITE);
@@ -361,17 +437,9 @@ class ExamplesMaze {
     edge3 = new Edge(this.v1, this.v1Left, 69);
     edge4 = new Edge(this.v1, this.v1Right, 420);
 
-    mazeSeed2 = new Maze(4, 4);
-    vwall = new LineImage(new Posn(0, Maze.CELL_SIZE), Color.BLACK);
-    hwall = new LineImage(new Posn(Maze.CELL_SIZE, 0), Color.BLACK);
-    cellStart = new RectangleImage(Maze.CELL_SIZE,
-        Maze.CELL_SIZE, OutlineMode.SOLID, Color.GREEN);
-    cellOther = new RectangleImage(Maze.CELL_SIZE,
-        Maze.CELL_SIZE, OutlineMode.SOLID, Color.LIGHT_GRAY);
-    cellEnd = new RectangleImage(Maze.CELL_SIZE,
-        Maze.CELL_SIZE, OutlineMode.SOLID, Color.MAGENTA);
-
-    maze2x2Seed = new Maze(2, 2);
+    mazeSeed2 = new Maze(4, 4, 7);
+
+    maze2x2Seed = new Maze(2, 2, 1);
     tl = new Vertex(new Posn(0, 0), Color.GREEN);
     tr = new Vertex(new Posn(0, 1), Color.LIGHT_GRAY);
     bl = new Vertex(new Posn(1, 0), Color.LIGHT_GRAY);
@@ -390,7 +458,7 @@ class ExamplesMaze {
   void testBigBang(Tester t) {
     initialData();
     this.maze1.bigBang(Maze.CELL_SIZE * this.maze1.c,
-        Maze.CELL_SIZE * this.maze1.r, 1.0 / 100.0);
+        Maze.CELL_SIZE * this.maze1.r + Maze.STATUS_HEIGHT, 1.0 / 100.0);
     // this.maze2x2Seed.bigBang(Maze.CELL_SIZE * this.maze1.c, Maze.CELL_SIZE *
     // this.maze1.r, 1.0 / 100.0);
   }
@@ -450,9 +518,13 @@ class ExamplesMaze {
   // generates hashcode for a vertex
   void testVertexHashCode(Tester t) {
     initialData();
-    t.checkExpect(this.v1.hashCode(), 4 * 100000000 + 4 * 3);
-    t.checkExpect(this.v1Bottom.hashCode(), 4 * 100000000 + 5 * 3);
-    t.checkExpect(this.v1Right.hashCode(), 5 * 100000000 + 4 * 3);
+    Vertex v1Copy = new Vertex(new Posn(4, 4), Color.WHITE);
+    t.checkExpect(this.v1.hashCode(), v1Copy.hashCode());
+    t.checkExpect(this.v1.hashCode(), Vertex.hash(new Posn(4, 4)));
+    t.checkExpect(this.v1.hashCode() == this.v1Bottom.hashCode(), false);
+    t.checkExpect(this.v1.hashCode() == this.v1Right.hashCode(), false);
+    // swapping the coordinates gives a different hash
+    t.checkExpect(Vertex.hash(new Posn(4, 5)) == Vertex.hash(new Posn(5, 4)), false);
   }
 
   void testEdgeEquals(Tester t) {
@@ -470,76 +542,918 @@ class ExamplesMaze {
 
   void testEdgeHashCode(Tester t) {
     initialData();
-    t.checkExpect(this.edge1.hashCode(), 4359958);
-    t.checkExpect(this.edge2.hashCode(), 4359954);
-    t.checkExpect(this.edge3.hashCode(), 4269956);
-    t.checkExpect(this.edge4.hashCode(), 4449956);
-
+    // equal edges have equal hashes, whichever way they point
+    Edge edge1Reversed = new Edge(this.v1Bottom, this.v1, 9);
+    t.checkExpect(this.edge1.equals(edge1Reversed), true);
+    t.checkExpect(this.edge1.hashCode(), edge1Reversed.hashCode());
+    t.checkExpect(this.edge1.hashCode(), new Edge(this.v1, this.v1Bottom, 5).hashCode());
+
+    t.checkExpect(this.edge1.hashCode() == this.edge2.hashCode(), false);
+    t.checkExpect(this.edge3.hashCode() == this.edge4.hashCode(), false);
   }
 
   void testCreateBoard(Tester t) {
     initialData();
     t.checkExpect(this.mazeSeed.board.size(), 6000);
+    t.checkExpect(this.mazeSeed.board.r, 60);
+    t.checkExpect(this.mazeSeed.board.c, 100);
+
+    // every weight is in range, and the spanning tree opened V - 1 walls
+    int open = 0;
+    for (int e = 0; e < 6000 * 2; e++) {
+      if (this.mazeSeed.board.isEdge(e)) {
+        t.checkRange(this.mazeSeed.board.weight(e), 0, 100);
+        if (this.mazeSeed.board.isOpen(e)) {
+          open++;
+        }
+      }
+    }
+    t.checkExpect(open, 5999);
+  }
 
-    Maze mazeSeedCopy = new Maze(60, 100);
-    t.checkExpect(this.mazeSeed.board, mazeSeed.board);
-
-    this.mazeSeed.board = new ArrayList<Vertex>();
-    mazeSeedCopy.board = new ArrayList<Vertex>();
-    this.mazeSeed.createBoard();
-    mazeSeedCopy.createBoard();
-    t.checkExpect(this.mazeSeed.board, mazeSeedCopy.board);
+  void testGridGraph(Tester t) {
+    initialData();
+    GridGraph g = new GridGraph(2, 3);
+    t.checkExpect(g.size(), 6);
+    t.checkExpect(g.index(2, 1), 5);
+    t.checkExpect(g.x(5), 2);
+    t.checkExpect(g.y(5), 1);
+    t.checkExpect(g.hasEast(1), true);
+    t.checkExpect(g.hasEast(2), false);
+    t.checkExpect(g.hasSouth(2), true);
+    t.checkExpect(g.hasSouth(3), false);
+    t.checkExpect(g.other(1 * 2 + GridGraph.EAST), 2);
+    t.checkExpect(g.other(1 * 2 + GridGraph.SOUTH), 4);
+
+    int[] out = new int[4];
+    t.checkExpect(g.passages(1, out), 0);
+    g.openEast(0);
+    g.openEast(1);
+    g.openSouth(1);
+    t.checkExpect(g.isOpenEast(0), true);
+    t.checkExpect(g.isOpenSouth(0), false);
+    t.checkExpect(g.isOpen(1 * 2 + GridGraph.SOUTH), true);
+    // left, right, below, top
+    t.checkExpect(g.passages(1, out), 3);
+    t.checkExpect(out, new int[] {0, 2, 4, 0});
+    t.checkExpect(g.passages(4, out), 1);
+    t.checkExpect(out[0], 1);
+
+    g.setWeight(3 * 2 + GridGraph.EAST, 99);
+    t.checkExpect(g.weight(3 * 2 + GridGraph.EAST), 99);
+    t.checkExpect(g.weight(3 * 2 + GridGraph.SOUTH), 0);
+
+    // neighbors ignore walls, edge goes back from two cells to their edge id
+    t.checkExpect(g.neighbors(4, out), 3);
+    t.checkExpect(out, new int[] {3, 5, 1, 0});
+    t.checkExpect(g.neighbors(0, out), 2);
+    t.checkExpect(g.edge(4, 1), 1 * 2 + GridGraph.SOUTH);
+    t.checkExpect(g.edge(2, 1), 1 * 2 + GridGraph.EAST);
+    t.checkExpect(new GridGraph(3, 1).edge(1, 2), 1 * 2 + GridGraph.SOUTH);
+  }
 
-    // might need to test the adding to outedges and connecting the neighbors
+  void testRangeMin(Tester t) {
+    initialData();
+    RangeMin small = new RangeMin(new int[] {5, 2, 7, 2, 9});
+    t.checkExpect(small.size(), 5);
+    t.checkExpect(small.min(0, 4), 1);
+    t.checkExpect(small.min(2, 4), 3);
+    t.checkExpect(small.min(2, 2), 2);
+    t.checkExpect(small.min(4, 4), 4);
+    t.checkException(new IndexOutOfBoundsException("Range [3, 1] is not in [0, 5)"),
+        small, "min", 3, 1);
+    t.checkException(new IndexOutOfBoundsException("Range [0, 5] is not in [0, 5)"),
+        small, "min", 0, 5);
+
+    // ranges within a block, across two, and across many, against a scan
+    SplittableRandom random = new SplittableRandom(20);
+    int[] values = new int[700];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextInt(40);
+    }
+    RangeMin big = new RangeMin(values);
+    for (int q = 0; q < 200; q++) {
+      int l = random.nextInt(values.length);
+      int r = l + random.nextInt(values.length - l);
+      int best = l;
+      for (int i = l; i <= r; i++) {
+        if (values[i] < values[best]) {
+          best = i;
+        }
+      }
+      t.checkExpect(big.min(l, r), best);
+    }
   }
 
-  void testMoreThanOneTree(Tester t) {
+  void testIntCollections(Tester t) {
     initialData();
+    // the queue wraps around its ring and grows past its capacity, first in first out
+    IntQueue q = new IntQueue(3);
+    q.addInt(1);
+    q.addInt(2);
+    t.checkExpect(q.removeInt(), 1);
+    q.addInt(3);
+    q.addInt(4);
+    q.addInt(5);
+    t.checkExpect(q.size(), 4);
+    t.checkExpect(q.removeInt(), 2);
+    t.checkExpect(q.remove(), 3);
+    t.checkExpect(q.removeInt(), 4);
+    t.checkExpect(q.removeInt(), 5);
+    t.checkExpect(q.isEmpty(), true);
+    t.checkException(new NoSuchElementException("The queue is empty"), q, "removeInt");
+
+    // the stack grows past its capacity, last in first out
+    IntStack s = new IntStack(1);
+    s.addInt(7);
+    s.add(8);
+    s.addInt(9);
+    t.checkExpect(s.size(), 3);
+    t.checkExpect(s.removeInt(), 9);
+    t.checkExpect(s.remove(), 8);
+    t.checkExpect(s.removeInt(), 7);
+    t.checkException(new NoSuchElementException("The stack is empty"), s, "removeInt");
+
+    // a boxed collection is used through a view, an int one as it is
+    IntCollection boxed = IntCollection.of(new MQueue<Integer>());
+    boxed.addInt(4);
+    boxed.addInt(6);
+    t.checkExpect(boxed.removeInt(), 4);
+    t.checkExpect(boxed.isEmpty(), false);
+    t.checkExpect(IntCollection.of(q) == q, true);
+
+    // searches give the same path with int and boxed worklists
+    GridGraph g = new WilsonGenerator().generate(20, 30, 7);
+    t.checkExpect(new MazeSolver(g).solve(0, 599, new IntQueue()).path,
+        new MazeSolver(g).solve(0, 599, new MQueue<Integer>()).path);
+    t.checkExpect(new MazeSolver(g).solve(0, 599, new IntStack()).visited,
+        new MazeSolver(g).solve(0, 599, new MStack<Integer>()).visited);
+  }
 
-    t.checkExpect(this.mazeSeed.uf.moreThanOneTree(), false);
+  void testConcurrentIntQueue(Tester t) throws InterruptedException {
+    initialData();
+    ConcurrentIntQueue q = new ConcurrentIntQueue(3);
+    t.checkExpect(q.capacity(), 4);
+    t.checkExpect(q.poll(), ConcurrentIntQueue.EMPTY);
+    for (int i = 0; i < 4; i++) {
+      t.checkExpect(q.offer(i), true);
+    }
+    t.checkExpect(q.offer(4), false);
+    t.checkException(new IllegalStateException("The queue is full"), q, "addInt", 4);
+    t.checkExpect(q.poll(), 0);
+    t.checkExpect(q.offer(4), true);
+    t.checkExpect(q.removeInt(), 1);
+    t.checkExpect(q.removeInt(), 2);
+    t.checkExpect(q.removeInt(), 3);
+    t.checkExpect(q.removeInt(), 4);
+    t.checkExpect(q.isEmpty(), true);
+    t.checkException(new NoSuchElementException("The queue is empty"), q, "removeInt");
+    t.checkException(new IllegalArgumentException("Only non-negative ints can be queued, got -1"),
+        q, "offer", -1);
+    t.checkConstructorException(new IllegalArgumentException("Capacity must be between 1 and "
+        + "1073741824, got 0"), "Structures.ConcurrentIntQueue", 0);
+
+    // 3 threads adding and 3 taking through a small queue: every item comes out once
+    ConcurrentIntQueue shared = new ConcurrentIntQueue(64);
+    AtomicLong sum = new AtomicLong();
+    AtomicLong taken = new AtomicLong();
+    ArrayList<Thread> threads = new ArrayList<Thread>();
+    for (int p = 0; p < 3; p++) {
+      int from = p * 10000;
+      threads.add(new Thread(() -> {
+        for (int i = from; i < from + 10000; i++) {
+          while (!shared.offer(i)) {
+            Thread.yield();
+          }
+        }
+      }));
+      threads.add(new Thread(() -> {
+        while (taken.get() < 30000) {
+          int item = shared.poll();
+          if (item == ConcurrentIntQueue.EMPTY) {
+            Thread.yield();
+          } else {
+            sum.addAndGet(item);
+            taken.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    t.checkExpect(taken.get(), 30000L);
+    t.checkExpect(sum.get(), 29999L * 30000 / 2);
+    t.checkExpect(shared.isEmpty(), true);
+  }
 
-    Maze mazeSeedCopy = new Maze(60, 100);
-    for (Vertex v : mazeSeedCopy.board) {
-      mazeSeedCopy.uf.union(mazeSeedCopy.uf.representatives, v.p, v.p);
+  void testParallelSolver(Tester t) {
+    initialData();
+    // in a perfect maze the flood finds the one path there is, on any number of threads
+    GridGraph g = new KruskalGenerator().generate(60, 70, 3);
+    int[] path = new MazeSolver(g).solve(0, 4199, SearchStrategy.BFS).path;
+    for (int threads = 1; threads <= 4; threads *= 2) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      SearchResult result = new ParallelSolver(g, pool).solve(0, 4199);
+      t.checkExpect(result.path, path);
+      t.checkExpect(result.visited <= 4200, true);
+      t.checkExpect(new ParallelSolver(g, pool).solve(77, 77).path, new int[] {77});
+      pool.shutdown();
     }
-    t.checkExpect(mazeSeedCopy.uf.moreThanOneTree(), true);
+    // walled off, there is no path
+    t.checkExpect(new ParallelSolver(new GridGraph(3, 3), ForkJoinPool.commonPool())
+        .solve(0, 8).path, new int[0]);
+  }
 
+  void testIntHeap(Tester t) {
+    initialData();
+    IntHeap h = new IntHeap(6);
+    t.checkExpect(h.isEmpty(), true);
+    t.checkExpect(h.offer(3, 30), true);
+    t.checkExpect(h.offer(1, 10), true);
+    t.checkExpect(h.offer(5, 50), true);
+    t.checkExpect(h.offer(0, 40), true);
+    // a larger key leaves the item alone, a smaller one moves it up
+    t.checkExpect(h.offer(1, 20), false);
+    t.checkExpect(h.offer(5, 5), true);
+    t.checkExpect(h.size(), 4);
+    t.checkExpect(h.contains(5), true);
+    t.checkExpect(h.contains(2), false);
+    t.checkExpect(h.poll(), 5);
+    t.checkExpect(h.key(5), 5L);
+    t.checkExpect(h.contains(5), false);
+    t.checkExpect(h.poll(), 1);
+    t.checkExpect(h.poll(), 3);
+    t.checkExpect(h.poll(), 0);
+    t.checkExpect(h.isEmpty(), true);
+    t.checkException(new NoSuchElementException("The heap is empty"), h, "poll");
+    h.offer(2, 1);
+    h.clear();
+    t.checkExpect(h.contains(2), false);
+    t.checkExpect(h.isEmpty(), true);
+  }
+
+  void testFilterOutEdges(Tester t) {
+    initialData();
+    Vertex a = new Vertex(new Posn(0, 0), Color.GREEN);
+    Vertex b = new Vertex(new Posn(1, 0), Color.LIGHT_GRAY);
+    Vertex c = new Vertex(new Posn(0, 1), Color.LIGHT_GRAY);
+    Vertex d = new Vertex(new Posn(1, 1), Color.MAGENTA);
+    a.addEdge(b, 3);
+    a.addEdge(c, 1);
+    b.addEdge(d, 2);
+    c.addEdge(d, 3);
+    d.addEdge(c, 3);
+    ArrayList<Vertex> board = new ArrayList<Vertex>();
+    board.add(a);
+    board.add(b);
+    board.add(c);
+    board.add(d);
+    UnionFind uf = new UnionFind();
+    uf.minSpanTree(board);
+
+    // direction does not matter
+    t.checkExpect(uf.isInTree(new Edge(a, b, 0)), true);
+    t.checkExpect(uf.isInTree(new Edge(b, a, 0)), true);
+    t.checkExpect(uf.isInTree(new Edge(d, c, 0)), false);
+    // not neighbors, or off the board
+    t.checkExpect(uf.isInTree(new Edge(a, d, 0)), false);
+    t.checkExpect(uf.isInTree(new Edge(a, this.v1, 0)), false);
+
+    uf.filterOutEdges(board);
+    t.checkExpect(a.outEdgesInTree, a.outEdges);
+    t.checkExpect(b.outEdgesInTree, b.outEdges);
+    t.checkExpect(c.outEdgesInTree.size(), 0);
+    t.checkExpect(d.outEdgesInTree.size(), 0);
+  }
+
+  void testMinSpanTreeGrid(Tester t) {
+    initialData();
+    // 2x2 grid: 0-1 weighs 3, 0-2 weighs 1, 1-3 weighs 2, 2-3 weighs 3
+    GridGraph g = new GridGraph(2, 2);
+    g.setWeight(0 * 2 + GridGraph.EAST, 3);
+    g.setWeight(0 * 2 + GridGraph.SOUTH, 1);
+    g.setWeight(1 * 2 + GridGraph.SOUTH, 2);
+    g.setWeight(2 * 2 + GridGraph.EAST, 3);
+    t.checkExpect(new UnionFind().minSpanTree(g), 3);
+    t.checkExpect(g.isOpenSouth(0), true);
+    t.checkExpect(g.isOpenSouth(1), true);
+    t.checkExpect(g.isOpenEast(0), true);
+    t.checkExpect(g.isOpenEast(2), false);
+
+    t.checkExpect(new UnionFind().minSpanTree(new GridGraph(1, 1)), 0);
+
+    // a generator reuses its union find for a bigger maze, then a smaller one, and makes the
+    // same mazes as new ones
+    KruskalGenerator reused = new KruskalGenerator();
+    t.checkExpect(reused.generate(9, 7, 4), new KruskalGenerator().generate(9, 7, 4));
+    t.checkExpect(reused.generate(3, 5, 5), new KruskalGenerator().generate(3, 5, 5));
   }
 
   void testMinSpanTree(Tester t) {
     initialData();
-    // a successful min span tree should only have one tree
-    t.checkExpect(this.mazeSeed.uf.moreThanOneTree(), false);
-    // the worklist after a successful min-span tree should be left with non-minimum
-    // edges
-    t.checkExpect(this.mazeSeed.uf.worklist.size(), 8461);
-    // the first thing in the worklist after the tree is created should be heavier
-    // than all the edges in tree
-    t.checkExpect(this.mazeSeed.uf.worklist.get(0).weight, 64);
-
-    boolean bruh = true;
-    for (Edge e : this.mazeSeed.uf.edgesInTree) {
-      if (e.weight > this.mazeSeed.uf.worklist.get(0).weight) {
-        bruh = false;
+    Vertex a = new Vertex(new Posn(0, 0), Color.GREEN);
+    Vertex b = new Vertex(new Posn(1, 0), Color.LIGHT_GRAY);
+    Vertex c = new Vertex(new Posn(0, 1), Color.LIGHT_GRAY);
+    Vertex d = new Vertex(new Posn(1, 1), Color.MAGENTA);
+    a.addEdge(b, 3);
+    a.addEdge(c, 1);
+    b.addEdge(a, 3);
+    b.addEdge(d, 2);
+    c.addEdge(a, 1);
+    c.addEdge(d, 3);
+    d.addEdge(b, 2);
+    d.addEdge(c, 3);
+    ArrayList<Vertex> board = new ArrayList<Vertex>();
+    board.add(a);
+    board.add(b);
+    board.add(c);
+    board.add(d);
+
+    // lightest edges first, ties in board order, stopping after V - 1 edges
+    ArrayList<Edge> expected = new ArrayList<Edge>();
+    expected.add(a.outEdges.get(1));
+    expected.add(b.outEdges.get(1));
+    expected.add(a.outEdges.get(0));
+    UnionFind uf = new UnionFind();
+    t.checkExpect(uf.minSpanTree(board), expected);
+    t.checkExpect(uf.getEdgesInTree(), expected);
+
+    // a second run starts from fresh sets
+    t.checkExpect(uf.minSpanTree(board), expected);
+
+    // a board with no edges has no tree to build
+    ArrayList<Vertex> lonely = new ArrayList<Vertex>();
+    lonely.add(new Vertex(new Posn(0, 0), Color.GREEN));
+    lonely.add(new Vertex(new Posn(1, 0), Color.MAGENTA));
+    t.checkExpect(new UnionFind().minSpanTree(lonely).size(), 0);
+    t.checkExpect(new UnionFind().minSpanTree(new ArrayList<Vertex>()).size(), 0);
+  }
+
+  void testMazeSolver(Tester t) {
+    initialData();
+    // 2x2 grid shaped like a U: 0 - 2 - 3 - 1
+    GridGraph g = new GridGraph(2, 2);
+    g.openSouth(0);
+    g.openEast(2);
+    g.openSouth(1);
+    MazeSolver solver = new MazeSolver(g);
+
+    int[] path = new int[] {0, 2, 3, 1};
+    SearchResult bfs = solver.solve(0, 1, new MQueue<Integer>());
+    t.checkExpect(bfs.path, path);
+    t.checkExpect(bfs.visited, 4);
+    t.checkExpect(solver.solve(0, 1, new MStack<Integer>()).path, path);
+
+    // the goal is the start
+    t.checkExpect(solver.solve(3, 3, new MQueue<Integer>()).path, new int[] {3});
+
+    // nothing joins 0 to 1 once the walls are all up
+    t.checkExpect(new MazeSolver(new GridGraph(2, 2)).solve(0, 1, new MQueue<Integer>()).path,
+        new int[0]);
+
+    // a long corridor: the path is rebuilt without recursion
+    GridGraph corridor = new GridGraph(1, 100000);
+    for (int i = 0; i < 99999; i++) {
+      corridor.openEast(i);
+    }
+    int[] longPath = new MazeSolver(corridor).solve(0, 99999, new MStack<Integer>()).path;
+    t.checkExpect(longPath.length, 100000);
+    t.checkExpect(longPath[0], 0);
+    t.checkExpect(longPath[50000], 50000);
+    t.checkExpect(longPath[99999], 99999);
+  }
+
+  void testSolveStrategy(Tester t) {
+    initialData();
+    // 2x2 grid shaped like a U: 0 - 2 - 3 - 1
+    GridGraph g = new GridGraph(2, 2);
+    g.openSouth(0);
+    g.openEast(2);
+    g.openSouth(1);
+    MazeSolver solver = new MazeSolver(g);
+
+    SearchResult bfs = solver.solve(0, 1, SearchStrategy.BFS, true);
+    t.checkExpect(bfs.path, new int[] {0, 2, 3, 1});
+    t.checkExpect(bfs.order, new int[] {0, 2, 3, 1});
+    t.checkExpect(bfs.visited, 4);
+    t.checkExpect(bfs.nanos >= 0, true);
+
+    // only recorded when asked for
+    t.checkExpect(solver.solve(0, 3, SearchStrategy.DFS).order, new int[0]);
+    t.checkExpect(solver.solve(0, 3, SearchStrategy.DFS).path, new int[] {0, 2, 3});
+
+    t.checkExpect(SearchStrategy.parse("dfs"), SearchStrategy.DFS);
+    t.checkExpect(SearchStrategy.parse("BFS"), SearchStrategy.BFS);
+    t.checkException(new IllegalArgumentException(
+        "\nUnknown solver x, expected one of [bfs, dfs, astar, greedy, bidirectional]"),
+        SearchStrategy.BFS, "parse", "x");
+    t.checkExpect(SearchStrategy.parse("AStar"), SearchStrategy.ASTAR);
+
+    // the best first searches find the same path, the only one in a perfect maze
+    t.checkExpect(solver.solve(0, 1, SearchStrategy.ASTAR, true).order, new int[] {0, 2, 3, 1});
+    t.checkExpect(solver.solve(0, 1, SearchStrategy.GREEDY).path, new int[] {0, 2, 3, 1});
+    GridGraph big = new KruskalGenerator().generate(80, 120, 6);
+    MazeSolver bigSolver = new MazeSolver(big);
+    SearchResult wide = bigSolver.solve(0, big.size() - 1, SearchStrategy.BFS);
+    SearchResult star = bigSolver.solve(0, big.size() - 1, SearchStrategy.ASTAR);
+    SearchResult greedy = bigSolver.solve(0, big.size() - 1, SearchStrategy.GREEDY);
+    t.checkExpect(star.path, wide.path);
+    t.checkExpect(greedy.path, wide.path);
+    t.checkExpect(star.visited <= wide.visited, true);
+    t.checkExpect(greedy.visited < wide.visited, true);
+  }
+
+  void testBidirectional(Tester t) {
+    initialData();
+    // a corridor 0 - 1 - 2 - 3 - 4: the two searches take turns and meet in the middle
+    GridGraph corridor = new GridGraph(1, 5);
+    for (int i = 0; i < 4; i++) {
+      corridor.openEast(i);
+    }
+    MazeSolver solver = new MazeSolver(corridor.freeze());
+    SearchResult both = solver.solve(0, 4, SearchStrategy.BIDIRECTIONAL, true);
+    t.checkExpect(both.path, new int[] {0, 1, 2, 3, 4});
+    t.checkExpect(both.order, new int[] {0, 4, 1, 3});
+    t.checkExpect(both.visited, 4);
+    t.checkExpect(both.fromGoal.get(4), true);
+    t.checkExpect(both.fromGoal.get(3), true);
+    t.checkExpect(both.fromGoal.get(1), false);
+    t.checkExpect(solver.solve(3, 1, SearchStrategy.BIDIRECTIONAL).path, new int[] {3, 2, 1});
+    t.checkExpect(solver.solve(2, 2, SearchStrategy.BIDIRECTIONAL).path, new int[] {2});
+    // a search from one end only never reaches the other gradient
+    t.checkExpect(solver.solve(0, 4, SearchStrategy.BFS, true).fromGoal.isEmpty(), true);
+
+    // no passages, no path
+    GridGraph closed = new GridGraph(2, 2);
+    t.checkExpect(new MazeSolver(closed).solve(0, 3, SearchStrategy.BIDIRECTIONAL).path,
+        new int[0]);
+
+    // the same path as bfs, with fewer cells visited on a big maze
+    GridGraph big = new KruskalGenerator().generate(120, 120, 12);
+    MazeSolver bigSolver = new MazeSolver(big);
+    SearchResult wide = bigSolver.solve(0, big.size() - 1, SearchStrategy.BFS);
+    SearchResult two = bigSolver.solve(0, big.size() - 1, SearchStrategy.BIDIRECTIONAL);
+    t.checkExpect(two.path, wide.path);
+    t.checkExpect(two.visited < wide.visited, true);
+
+    t.checkException(new IllegalArgumentException("\nA bidirectional search has no single "
+        + "worklist, run it with MazeSolver.solve"), bigSolver, "begin", 0, 1,
+        SearchStrategy.BIDIRECTIONAL);
+
+    // the gui paints the two searches in different gradients
+    Maze m = new Maze(corridor);
+    m.onKeyEvent("t");
+    m.onTick();
+    m.onTick();
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE / 2, Maze.CELL_SIZE / 2),
+        m.palette.search(0, 0));
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE * 4 + Maze.CELL_SIZE / 2, Maze.CELL_SIZE / 2),
+        m.palette.back(4, 0));
+  }
+
+  void testCorridorTree(Tester t) {
+    initialData();
+    // a snake 0 - 1 - 2 - 5 - 4 - 3 is one corridor between two dead ends
+    GridGraph snake = new GridGraph(2, 3);
+    snake.openEast(0);
+    snake.openEast(1);
+    snake.openSouth(2);
+    snake.openEast(4);
+    snake.openEast(3);
+    CorridorTree tree = new CorridorTree(snake.freeze());
+    t.checkExpect(tree.nodes(), 2);
+    t.checkExpect(tree.corridors(), 1);
+    t.checkExpect(tree.solve(0, 3).path, new int[] {0, 1, 2, 5, 4, 3});
+    t.checkExpect(tree.solve(4, 1).path, new int[] {4, 5, 2, 1});
+    t.checkExpect(tree.solve(2, 2).path, new int[] {2});
+    t.checkExpect(tree.distance(3, 0), 5);
+    t.checkExpect(tree.distance(5, 0), 3);
+
+    // the same paths as bfs on a real maze, however often it is asked
+    GridGraph big = new KruskalGenerator().generate(60, 60, 19);
+    CorridorTree bigTree = new CorridorTree(big);
+    MazeSolver solver = new MazeSolver(big);
+    t.checkExpect(bigTree.nodes() < big.size(), true);
+    t.checkExpect(bigTree.corridors(), bigTree.nodes() - 1);
+    SplittableRandom random = new SplittableRandom(19);
+    for (int i = 0; i < 50; i++) {
+      int start = random.nextInt(big.size());
+      int goal = random.nextInt(big.size());
+      int[] path = solver.solve(start, goal, SearchStrategy.BFS).path;
+      t.checkExpect(bigTree.solve(start, goal).path, path);
+      t.checkExpect(bigTree.distance(start, goal), path.length - 1);
+    }
+    t.checkExpect(bigTree.solve(0, big.size() - 1).path,
+        bigTree.solve(0, big.size() - 1).path);
+
+    // a single cell is a node on its own
+    CorridorTree one = new CorridorTree(new GridGraph(1, 1));
+    t.checkExpect(one.nodes(), 1);
+    t.checkExpect(one.solve(0, 0).path, new int[] {0});
+
+    t.checkConstructorException(new IllegalArgumentException("A corridor tree needs a perfect "
+        + "maze, this one has 0 passages for 4 cells"), "Functions.CorridorTree",
+        new GridGraph(2, 2));
+  }
+
+  void testMHeap(Tester t) {
+    initialData();
+    // keyed on the steps taken, so it behaves like a queue
+    MHeap byStep = new MHeap(5, (cell, steps) -> steps);
+    byStep.add(0);
+    t.checkExpect(byStep.remove(), 0);
+    byStep.add(3);
+    byStep.add(1);
+    t.checkExpect(byStep.remove(), 3);
+    byStep.add(4);
+    t.checkExpect(byStep.remove(), 1);
+    t.checkExpect(byStep.remove(), 4);
+    t.checkExpect(byStep.isEmpty(), true);
+    // keyed on the cell, and a cell is only queued once
+    MHeap byCell = new MHeap(5, (cell, steps) -> -cell);
+    byCell.add(2);
+    byCell.add(4);
+    byCell.add(2);
+    t.checkExpect(byCell.remove(), 4);
+    t.checkExpect(byCell.remove(), 2);
+    t.checkExpect(byCell.isEmpty(), true);
+  }
+
+  void testMazeSolverStep(Tester t) {
+    initialData();
+    GridGraph g = new GridGraph(2, 2);
+    g.openSouth(0);
+    g.openEast(2);
+    g.openSouth(1);
+    MazeSolver solver = new MazeSolver(g);
+    t.checkExpect(solver.isDone(), true);
+    solver.begin(0, 1, new MQueue<Integer>());
+    t.checkExpect(solver.isDone(), false);
+    t.checkExpect(solver.step(), 0);
+    t.checkExpect(solver.step(), 2);
+    t.checkExpect(solver.step(), 3);
+    t.checkExpect(solver.isFound(), false);
+    t.checkExpect(solver.step(), 1);
+    t.checkExpect(solver.isFound(), true);
+    t.checkExpect(solver.isDone(), true);
+    t.checkExpect(solver.step(), -1);
+    t.checkExpect(solver.getVisitedCount(), 4);
+  }
+
+  void testMazeGenerator(Tester t) {
+    initialData();
+    GridGraph g = new KruskalGenerator().generate(5, 7);
+    t.checkExpect(g.isFrozen(), true);
+    t.checkException(new IllegalStateException("The maze has already been generated"),
+        g, "openEast", 0);
+    // a spanning tree reaches every cell
+    t.checkExpect(new MazeSolver(g).solve(0, 34, new MQueue<Integer>()).visited <= 35, true);
+    t.checkExpect(new MazeSolver(g).solve(0, 34, new MQueue<Integer>()).path.length > 0, true);
+  }
+
+  void testSeed(Tester t) {
+    initialData();
+    // the same seed always gives the same maze, weights and walls
+    t.checkExpect(new KruskalGenerator().generate(20, 30, 42),
+        new KruskalGenerator().generate(20, 30, 42));
+    t.checkFail(new KruskalGenerator().generate(20, 30, 42),
+        new KruskalGenerator().generate(20, 30, 43));
+    t.checkExpect(new Maze(60, 100, 2023).board, this.mazeSeed.board);
+    t.checkExpect(this.mazeSeed.seed, 2023L);
+    // "r" moves on to the next seed, so a session can be replayed from its first seed
+    this.mazeSeed.onKeyEvent("r");
+    t.checkExpect(this.mazeSeed.seed, MazeGenerator.nextSeed(2023));
+    t.checkExpect(this.mazeSeed.board,
+        new KruskalGenerator().generate(60, 100, MazeGenerator.nextSeed(2023)));
+  }
+
+  void testParallelGenerator(Tester t) {
+    initialData();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    // big enough to be split up, and the same maze as the sequential engine for a seed
+    GridGraph parallel = new KruskalGenerator(pool).generate(150, 130, 9);
+    GridGraph sequential = new KruskalGenerator().generate(150, 130, 9);
+    t.checkExpect(parallel.sameWalls(sequential), true);
+    t.checkExpect(parallel, sequential);
+    t.checkExpect(parallel.isFrozen(), true);
+    // small grids fall back to the sequential loop
+    t.checkExpect(new KruskalGenerator(pool).generate(5, 7, 3),
+        new KruskalGenerator().generate(5, 7, 3));
+    // FilterKruskal accepts one edge per cell but one
+    GridGraph g = new GridGraph(200, 100);
+    t.checkExpect(new FilterKruskal(pool).minSpanTree(g), 19999);
+    pool.shutdown();
+  }
+
+  void testEllerGenerator(Tester t) {
+    initialData();
+    // a perfect maze: one passage fewer than cells, and the end can be reached
+    GridGraph g = EllerGenerator.generate(30, 40, 5);
+    int passages = 0;
+    for (int e = 0; e < g.size() * 2; e++) {
+      if (g.isEdge(e) && g.isOpen(e)) {
+        passages++;
       }
     }
-    t.checkExpect(bruh, true);
+    t.checkExpect(passages, 1199);
+    t.checkExpect(new MazeSolver(g).solve(0, 1199, SearchStrategy.BFS).path.length > 0, true);
+    t.checkExpect(g.isFrozen(), true);
+    t.checkExpect(EllerGenerator.generate(30, 40, 5), g);
+    // the last row has no passages down, and every row is handed over in order
+    ArrayList<Integer> rows = new ArrayList<Integer>();
+    new EllerGenerator(3, 1).generate(4, (y, east, south) -> {
+      rows.add(y);
+      if (y == 3) {
+        t.checkExpect(south[0], 0L);
+      }
+    });
+    t.checkExpect(rows.size(), 4);
+    t.checkExpect(rows.get(3), 3);
+    t.checkExpect(EllerGenerator.generate(1, 5, 2).isOpenEast(3), true);
+    t.checkConstructorException(
+        new IllegalArgumentException("A maze needs at least 1 column, got 0"),
+        "Functions.EllerGenerator", 0, 1L);
+  }
 
-    t.checkExpect(this.mazeSeed.uf.edgesInTree.size(), 5999);
+  void testMazeFile(Tester t) throws IOException {
+    initialData();
+    // a maze comes back with the same walls, seed and generator, at 2 bits per cell
+    Path path = Files.createTempFile("maze", ".maze");
+    GridGraph g = new WilsonGenerator().generate(13, 70, 21);
+    MazeFile.write(path, g, 21, "wilson");
+    t.checkExpect(Files.size(path), MazeFile.bytes(13, 70));
+    t.checkExpect(MazeFile.bytes(13, 70), 64L + 2 * 15 * 8);
+    MazeFile file = MazeFile.open(path);
+    t.checkExpect(file.grid.sameWalls(g), true);
+    t.checkExpect(file.seed, 21L);
+    t.checkExpect(file.generator, "wilson");
+    t.checkExpect(file.grid.isFrozen(), true);
+    t.checkExpect(file.grid.weight(0), 0);
+    t.checkExpect(new MazeSolver(file.grid).solve(0, g.size() - 1, SearchStrategy.BFS).path,
+        new MazeSolver(g).solve(0, g.size() - 1, SearchStrategy.BFS).path);
+
+    // rows streamed from eller land where the whole maze would, across word boundaries
+    MazeFile.Writer writer = new MazeFile.Writer(path, 9, 70, 4, "eller");
+    new EllerGenerator(70, 4).generate(9, writer::row);
+    writer.close();
+    t.checkExpect(MazeFile.open(path).grid.sameWalls(EllerGenerator.generate(9, 70, 4)), true);
+
+    // anything else is refused
+    Files.write(path, new byte[] {'M', 'A', 'Z', 'E'});
+    t.checkException(new IOException(path + " is not a maze file, it is too short for a header"),
+        file, "open", path);
+    Files.write(path, new byte[64]);
+    t.checkException(new IOException(path + " is not a maze file"), file, "open", path);
+    t.checkException(new IllegalArgumentException("Generator label is longer than 31 "
+        + "characters: " + "x".repeat(32)), file, "write", path, g, 1L, "x".repeat(32));
+
+    // a maze cannot be saved over the file it was loaded from, however the path is written
+    MazeFile.write(path, g, 21, "wilson");
+    String same = path.getParent().resolve(".").resolve(path.getFileName()).toString();
+    t.checkException(new IllegalArgumentException("\n--save " + same + " is the --load file, "
+        + "save the maze to another file"),
+        new Headless(new String[] {"--load", path.toString(), "--save", same}), "run");
+    t.checkExpect(MazeFile.open(path).grid.sameWalls(g), true);
+
+    // and so are passages out of the maze, which write never sets
+    byte[] bytes = new byte[(int) MazeFile.bytes(2, 3)];
+    ByteBuffer header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    header.put(new byte[] {'M', 'A', 'Z', 'E'}).putInt(MazeFile.VERSION).putInt(2).putInt(3);
+    Files.write(path, bytes);
+    t.checkExpect(MazeFile.open(path).grid.size(), 6);
+    bytes[64] = 1 << 5;
+    Files.write(path, bytes);
+    t.checkException(new IOException(path + " has a passage east out of row 1"), file, "open",
+        path);
+    bytes[64] = 1 << 6;
+    Files.write(path, bytes);
+    t.checkException(new IOException(path + " has passages past its last cell"), file, "open",
+        path);
+    bytes[64] = 0;
+    bytes[72] = 1 << 3;
+    Files.write(path, bytes);
+    t.checkException(new IOException(path + " has a passage south out of its last row"), file,
+        "open", path);
+    Files.delete(path);
+  }
 
+  void testChunkStore(Tester t) throws IOException {
+    initialData();
+    // an eller maze streamed into 64x64 chunks, with room for only 2 of the 6 in memory
+    Path path = Files.createTempFile("maze", ".chunks");
+    GridGraph g = EllerGenerator.generate(150, 100, 6);
+    ChunkStore store = ChunkStore.create(path, 150, 100, 64, 6, "eller", 2 * 3072);
+    t.checkExpect(store.chunks(), 6);
+    t.checkExpect(store.chunkBytes(), 3072);
+    t.checkExpect(store.capacity(), 2);
+    new EllerGenerator(100, 6).generate(150, store::row);
+    boolean same = true;
+    for (int cell = 0; cell < g.size(); cell++) {
+      same &= store.isOpenEast(cell % 100, cell / 100) == g.isOpenEast(cell)
+          && store.isOpenSouth(cell % 100, cell / 100) == g.isOpenSouth(cell);
+    }
+    t.checkExpect(same, true);
+    t.checkExpect(store.misses() > store.chunks(), true);
+    t.checkExpect(store.evictions(), store.misses() - 2);
+    t.checkExpect(store.passages(0, 0) & 9, 0);
+
+    // both searches find the path MazeSolver does, keeping where they came from in the chunks
+    int[] expected = new MazeSolver(g).solve(0, g.size() - 1, SearchStrategy.BFS).path;
+    long[] cells = new long[expected.length];
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = expected[i];
+    }
+    ChunkedSolver solver = new ChunkedSolver(store);
+    t.checkExpect(solver.bfs(0, 0, 99, 149), cells.length - 1L);
+    t.checkExpect(solver.path(), cells);
+    t.checkExpect(solver.getVisitedCount() >= cells.length, true);
+    t.checkExpect(solver.dfs(0, 0, 99, 149), cells.length - 1L);
+    t.checkExpect(solver.path(), cells);
+    t.checkExpect(solver.bfs(5, 7, 5, 7), 0L);
+    t.checkExpect(solver.path(), new long[] {705});
+
+    // closed and opened again, the walls are still there and the marks are not
+    store.close();
+    store = ChunkStore.open(path, 1 << 20);
+    t.checkExpect(store.seed, 6L);
+    t.checkExpect(store.generator, "eller");
+    t.checkExpect(store.capacity(), 6);
+    t.checkExpect(store.isOpenSouth(42, 77), g.isOpenSouth(77 * 100 + 42));
+    t.checkExpect(store.mark(5, 7), 0);
+    t.checkException(new IndexOutOfBoundsException("Cell (100, 0) is not in a 150x100 maze"),
+        store, "isOpenEast", 100, 0);
+    store.close();
+    t.checkException(new IllegalArgumentException("Chunk side must be a multiple of 64 up to "
+        + "16384, got 100"), store, "create", path, 10, 10, 100, 1L, "eller", 1L);
+    Files.delete(path);
   }
 
-  void testUnion(Tester t) {
+  void testMazeExporter(Tester t) throws IOException {
     initialData();
-    t.checkExpect(this.mazeSeed.uf.representatives.get(mazeSeed.uf.edgesInTree.get(0).from.p),
-        new Posn(20, 0));
-    this.mazeSeed.uf.union(this.mazeSeed.uf.representatives, mazeSeed.uf.edgesInTree.get(0).from.p,
-        new Posn(69, 69));
-    t.checkExpect(this.mazeSeed.uf.representatives.get(mazeSeed.uf.edgesInTree.get(0).from.p),
-        new Posn(69, 69));
+    // a 3x4 maze and its path, 5 pixels a cell, read back pixel by pixel
+    GridGraph g = EllerGenerator.generate(3, 4, 2);
+    int[] path = new MazeSolver(g).solve(0, 11, SearchStrategy.BFS).path;
+    MazeExporter exporter = new MazeExporter(g, path, 5);
+    t.checkExpect(exporter.width(), 21);
+    t.checkExpect(exporter.height(), 16);
+    Path png = Files.createTempFile("maze", ".png");
+    ForkJoinPool pool = new ForkJoinPool(2);
+    exporter.png(png, pool, Deflater.DEFAULT_COMPRESSION);
+    BufferedImage image = ImageIO.read(png.toFile());
+    t.checkExpect(image.getWidth(), 21);
+    t.checkExpect(image.getRGB(0, 7) & 0xFFFFFF, 0);
+    t.checkExpect(image.getRGB(20, 15) & 0xFFFFFF, 0);
+    // the path's squares start a pixel in at this size, other cells are gray
+    t.checkExpect(image.getRGB(1, 1) & 0xFFFFFF, 0xFFFFFF);
+    boolean same = true;
+    for (int cell = 0; cell < 12; cell++) {
+      int x = 5 * g.x(cell);
+      int y = 5 * g.y(cell);
+      boolean onPath = false;
+      for (int p : path) {
+        onPath |= p == cell;
+      }
+      same &= (image.getRGB(x + 2, y + 2) & 0xFFFFFF) == (onPath ? 0xFFFFFF : 0xC0C0C0);
+      same &= (image.getRGB(x + 5, y + 2) == Color.BLACK.getRGB()) != g.isOpenEast(cell)
+          || g.x(cell) == 3;
+      same &= (image.getRGB(x + 2, y + 5) == Color.BLACK.getRGB()) != g.isOpenSouth(cell)
+          || g.y(cell) == 2;
+    }
+    t.checkExpect(same, true);
+    // the same picture whichever way it was deflated
+    long bytes = Files.size(png);
+    t.checkExpect(exporter.png(png, null, 9) <= bytes, true);
+    t.checkExpect(ImageIO.read(png.toFile()).getRGB(2, 2), image.getRGB(2, 2));
+    Files.delete(png);
+    pool.shutdown();
+
+    // the svg's walls come in runs: the border is one line each side
+    Path svg = Files.createTempFile("maze", ".svg");
+    new MazeExporter(g, new int[0], 5).svg(svg);
+    String text = new String(Files.readAllBytes(svg));
+    t.checkExpect(text.contains("M0 0h4\n"), true);
+    t.checkExpect(text.contains("M0 0v3\n"), true);
+    t.checkExpect(text.contains("polyline"), false);
+    Files.delete(svg);
+
+    // band checksums combine into the checksum of the whole
+    Adler32 first = new Adler32();
+    first.update(new byte[] {1, 2, 3});
+    Adler32 second = new Adler32();
+    second.update(new byte[] {4, 5});
+    Adler32 whole = new Adler32();
+    whole.update(new byte[] {1, 2, 3, 4, 5});
+    t.checkExpect(MazeExporter.combine(first.getValue(), second.getValue(), 2),
+        whole.getValue());
+    t.checkExpect(MazeExporter.combine(1, whole.getValue(), 5), whole.getValue());
+    t.checkConstructorException(new IllegalArgumentException("\nCells must be at least 2 "
+        + "pixels, got 1"), "Maze.MazeExporter", g, path, 1);
+    t.checkException(new IllegalArgumentException("\nThe compression level must be -1 to 9, "
+        + "got 10"), exporter, "png", svg, null, 10);
+  }
 
-    // potentially add another instance of union another key-value for testing
+  void testBatchGenerator(Tester t) throws InterruptedException {
+    initialData();
+    // every job's maze is the one its generator makes alone, whichever worker made it
+    ConcurrentHashMap<Long, GridGraph> made = new ConcurrentHashMap<Long, GridGraph>();
+    BatchGenerator batch = new BatchGenerator(3, 2, (job, maze) -> made.put(job.seed, maze));
+    GeneratorType[] types = GeneratorType.values();
+    for (int i = 0; i < 40; i++) {
+      batch.submit(new BatchGenerator.Job(types[i % types.length], 5 + i % 7, 9, i));
+    }
+    batch.close();
+    t.checkExpect(batch.generated(), 40L);
+    t.checkExpect(made.size(), 40);
+    boolean same = true;
+    long cells = 0;
+    for (int i = 0; i < 40; i++) {
+      same &= made.get((long) i).sameWalls(types[i % types.length].generator()
+          .generate(5 + i % 7, 9, i));
+      cells += (5 + i % 7) * 9;
+    }
+    t.checkExpect(same, true);
+    t.checkExpect(batch.cells(), cells);
+    t.checkException(new IllegalStateException("The batch has been closed"), batch, "submit",
+        new BatchGenerator.Job(GeneratorType.PRIM, 2, 2, 1));
+
+    // a job that fails leaves the others to finish, and close reports it
+    BatchGenerator failing = new BatchGenerator(2, 4, (job, maze) -> { });
+    failing.submit(new BatchGenerator.Job(GeneratorType.KRUSKAL, 4, 4, 1));
+    failing.submit(new BatchGenerator.Job(GeneratorType.KRUSKAL, 0, 4, 1));
+    t.checkException(new IllegalStateException("Generating a maze failed"), failing, "close");
+    t.checkExpect(failing.generated(), 1L);
+
+    // and so does one that fails with an error
+    BatchGenerator erring = new BatchGenerator(1, 1, (job, maze) -> {
+      if (job.seed == 1) {
+        throw new AssertionError("a broken sink");
+      }
+    });
+    erring.submit(new BatchGenerator.Job(GeneratorType.KRUSKAL, 4, 4, 2));
+    erring.submit(new BatchGenerator.Job(GeneratorType.KRUSKAL, 4, 4, 1));
+    t.checkException(new IllegalStateException("Generating a maze failed"), erring, "close");
+    t.checkExpect(erring.generated(), 1L);
+
+    // an interrupted close says so and leaves the thread interrupted, and closing again
+    // still waits for the jobs
+    BatchGenerator interrupted = new BatchGenerator(1, 1, (job, maze) -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    interrupted.submit(new BatchGenerator.Job(GeneratorType.KRUSKAL, 4, 4, 1));
+    Thread.currentThread().interrupt();
+    t.checkException(new IllegalStateException("Interrupted waiting for the batch to finish"),
+        interrupted, "close");
+    t.checkExpect(Thread.interrupted(), true);
+    t.checkExpect(interrupted.generated(), 0L);
+    interrupted.close();
+    t.checkExpect(interrupted.generated(), 1L);
+    t.checkConstructorException(new IllegalArgumentException("A batch needs at least 1 thread "
+        + "and room for 1 job, got 0 threads and 4 jobs"), "Functions.BatchGenerator", 0, 4,
+        (MazeSink) (job, maze) -> { });
+  }
 
+  void testGeneratorTypes(Tester t) {
+    initialData();
+    t.checkExpect(GeneratorType.parse("aldous-broder"), GeneratorType.ALDOUS_BRODER);
+    t.checkExpect(GeneratorType.parse("Binary_Tree"), GeneratorType.BINARY_TREE);
+    t.checkExpect(GeneratorType.SIDEWINDER.label(), "sidewinder");
+    t.checkException(new IllegalArgumentException("\nUnknown generator growing, expected one of "
+        + "[kruskal, prim, backtracker, wilson, aldous-broder, binary-tree, sidewinder, eller]"),
+        GeneratorType.KRUSKAL, "parse", "growing");
+    // every algorithm makes a perfect maze: one passage fewer than cells, all reachable
+    for (GeneratorType type : GeneratorType.values()) {
+      GridGraph g = type.generator().generate(12, 17, 3);
+      int passages = 0;
+      for (int e = 0; e < g.size() * 2; e++) {
+        if (g.isEdge(e) && g.isOpen(e)) {
+          passages++;
+        }
+      }
+      t.checkExpect(passages, 203, type.label());
+      t.checkExpect(new MazeSolver(g).solve(0, 203, SearchStrategy.BFS).path.length > 0, true,
+          type.label());
+      t.checkExpect(g.isFrozen(), true);
+      t.checkExpect(type.generator().generate(12, 17, 3), g, type.label());
+    }
+    // prim grows the same tree as kruskal from the same weights
+    t.checkExpect(new PrimGenerator().generate(40, 30, 8),
+        new KruskalGenerator().generate(40, 30, 8));
+    // binary tree always leaves the bottom row and right column open
+    GridGraph bt = new BinaryTreeGenerator().generate(5, 6, 1);
+    for (int x = 0; x < 5; x++) {
+      t.checkExpect(bt.isOpenEast(bt.index(x, 4)), true);
+    }
+    // a maze view can use any of them
+    Maze m = new Maze(6, 9, 4, new WilsonGenerator());
+    t.checkExpect(m.board, new WilsonGenerator().generate(6, 9, 4));
   }
 
   void testSortByWeightComparator(Tester t) {
@@ -552,267 +1466,86 @@ class ExamplesMaze {
     t.checkExpect(wazoo.compare(edge2, edge1), 1);
   }
 
+  // 2x2 maze shaped like a U: 0 - 2 - 3 - 1, with a wall between 0 and 1
+  Maze uMaze() {
+    GridGraph g = new GridGraph(2, 2);
+    g.openSouth(0);
+    g.openEast(2);
+    g.openSouth(1);
+    return new Maze(g.freeze());
+  }
+
   void testMakeScene(Tester t) {
     initialData();
-    WorldScene scene = new WorldScene(Maze.CELL_SIZE * 4, Maze.CELL_SIZE * 4);
-    // place cells
-    // row 1
-    scene.placeImageXY(this.cellStart,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 2
-    scene.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 3
-    scene.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 4
-    scene.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene.placeImageXY(this.cellEnd,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-
-    // place vertical walls (x7)
-    // right of....
-    // 0,0
-    scene.placeImageXY(this.vwall,
-        1 * Maze.CELL_SIZE,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 0,3
-    scene.placeImageXY(this.vwall,
-        3 * Maze.CELL_SIZE,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 1,1
-    scene.placeImageXY(this.vwall,
-        2 * Maze.CELL_SIZE,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 2,0
-    scene.placeImageXY(this.vwall,
-        1 * Maze.CELL_SIZE,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 2,2
-    scene.placeImageXY(this.vwall,
-        3 * Maze.CELL_SIZE,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 3,0
-    scene.placeImageXY(this.vwall,
-        1 * Maze.CELL_SIZE,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 3,1
-    scene.placeImageXY(this.vwall,
-        2 * Maze.CELL_SIZE,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-
-    // place horizontal walls (x2)
-    scene.placeImageXY(this.hwall,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE);
-    scene.placeImageXY(this.hwall,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE);
-
-    t.checkExpect(this.mazeSeed2.makeScene(), scene);
-
+    Maze m = this.uMaze();
+    WorldScene scene = new WorldScene(Maze.CELL_SIZE * 2,
+        Maze.CELL_SIZE * 2 + Maze.STATUS_HEIGHT);
+    scene.placeImageXY(m.frame.image, Maze.CELL_SIZE, Maze.CELL_SIZE);
+    scene.placeImageXY(new TextImage("", 10, Color.BLACK), Maze.CELL_SIZE,
+        Maze.CELL_SIZE * 2 + Maze.STATUS_HEIGHT / 2 + 1);
+    t.checkExpect(m.makeScene(), scene);
   }
 
   void testDrawCells(Tester t) {
     initialData();
-    WorldScene scene2 = new WorldScene(Maze.CELL_SIZE * 4, Maze.CELL_SIZE * 4);
-    // place cells
-    // row 1
-    scene2.placeImageXY(this.cellStart,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 2
-    scene2.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 3
-    scene2.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 4
-    scene2.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellEnd,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-
-    this.mazeSeed2.drawCells();
-    t.checkExpect(this.mazeSeed2.scene, scene2);
-
+    Maze m = this.uMaze();
+    int mid = Maze.CELL_SIZE / 2;
+    t.checkExpect(m.frame.pixel(mid, mid), Color.GREEN);
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE + mid, mid), Color.LIGHT_GRAY);
+    t.checkExpect(m.frame.pixel(mid, Maze.CELL_SIZE + mid), Color.LIGHT_GRAY);
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE + mid, Maze.CELL_SIZE + mid), Color.MAGENTA);
   }
 
   void testDrawWalls(Tester t) {
     initialData();
-    WorldScene scene2 = new WorldScene(Maze.CELL_SIZE * 4, Maze.CELL_SIZE * 4);
-    // place cells
-    // row 1
-    scene2.placeImageXY(this.cellStart,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 2
-    scene2.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 3
-    scene2.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // row 4
-    scene2.placeImageXY(this.cellOther,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellOther,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    scene2.placeImageXY(this.cellEnd,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-
-    // place vertical walls (x7)
-    // right of....
-    // 0,0
-    scene2.placeImageXY(this.vwall,
-        1 * Maze.CELL_SIZE,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 0,3
-    scene2.placeImageXY(this.vwall,
-        3 * Maze.CELL_SIZE,
-        0 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 1,1
-    scene2.placeImageXY(this.vwall,
-        2 * Maze.CELL_SIZE,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 2,0
-    scene2.placeImageXY(this.vwall,
-        1 * Maze.CELL_SIZE,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 2,2
-    scene2.placeImageXY(this.vwall,
-        3 * Maze.CELL_SIZE,
-        2 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 3,0
-    scene2.placeImageXY(this.vwall,
-        1 * Maze.CELL_SIZE,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-    // 3,1
-    scene2.placeImageXY(this.vwall,
-        2 * Maze.CELL_SIZE,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2));
-
-    // place horizontal walls (x2)
-    scene2.placeImageXY(this.hwall,
-        1 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        2 * Maze.CELL_SIZE);
-    scene2.placeImageXY(this.hwall,
-        3 * Maze.CELL_SIZE + (Maze.CELL_SIZE / 2),
-        3 * Maze.CELL_SIZE);
-
-    this.mazeSeed2.drawWalls();
-    t.checkExpect(this.mazeSeed2.scene, scene2);
+    Maze m = this.uMaze();
+    int mid = Maze.CELL_SIZE / 2;
+    // wall right of 0
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE, mid), Color.BLACK);
+    // no wall right of 2, below 0 or below 1
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE, Maze.CELL_SIZE + mid), Color.MAGENTA);
+    t.checkExpect(m.frame.pixel(mid, Maze.CELL_SIZE), Color.LIGHT_GRAY);
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE + mid, Maze.CELL_SIZE), Color.MAGENTA);
+  }
+
+  void testSearchPaintsCells(Tester t) {
+    initialData();
+    Maze m = this.uMaze();
+    m.onKeyEvent("b");
+    m.onTick();
+    // the start is now colored by the search, but its walls are left alone
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE / 2, Maze.CELL_SIZE / 2)
+        .equals(Color.GREEN), false);
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE, Maze.CELL_SIZE / 2), Color.BLACK);
+    // the rest of the search, then the path back from the end
+    for (int i = 0; i < 8; i++) {
+      m.onTick();
+    }
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE / 2, Maze.CELL_SIZE / 2), Color.WHITE);
+    t.checkExpect(m.solved, true);
+  }
 
+  void testPalette(Tester t) {
+    initialData();
+    // small boards get the exact gradient
+    Palette small = new Palette(4, 10);
+    t.checkExpect(small.search(0, 0), new Color(255, 140, 255));
+    t.checkExpect(small.search(5, 2), new Color(230, 140, 143));
+    t.checkExpect(small.found(9, 3), new Color(225, 140, 87));
+    // the same color object is handed out for every cell of a bucket
+    Palette big = new Palette(1000, 1000);
+    t.checkExpect(big.search(0, 0) == big.search(15, 15), true);
+    t.checkExpect(big.search(0, 0) == big.search(16, 0), false);
+    t.checkExpect(big.search(999, 999), new Color(206, 140, 34));
+    // a search reuses the palette of its maze
+    Maze m = this.uMaze();
+    m.onKeyEvent("b");
+    m.onTick();
+    m.onTick();
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE / 2, Maze.CELL_SIZE / 2),
+        m.palette.search(0, 0));
+    t.checkExpect(m.frame.pixel(Maze.CELL_SIZE / 2, Maze.CELL_SIZE + Maze.CELL_SIZE / 2),
+        m.palette.search(0, 1));
   }
 
   void testOnKeyEvent(Tester t) {
@@ -825,6 +1558,27 @@ class ExamplesMaze {
     this.maze1.onKeyEvent("z");
     t.checkExpect(this.maze1.searchType, "d");
 
+    // speed controls
+    t.checkExpect(this.maze1.stepsPerTick, 1);
+    this.maze1.onKeyEvent("+");
+    this.maze1.onKeyEvent("=");
+    t.checkExpect(this.maze1.stepsPerTick, 4);
+    this.maze1.onKeyEvent("-");
+    t.checkExpect(this.maze1.stepsPerTick, 2);
+    this.maze1.onKeyEvent("a");
+    t.checkExpect(this.maze1.adaptive, true);
+    this.maze1.onKeyEvent("+");
+    t.checkExpect(this.maze1.frameBudget, 8_000_000L);
+    t.checkExpect(this.maze1.stepsPerTick, 2);
+
+    // best first searches
+    this.mazeSeed2.onKeyEvent("s");
+    t.checkExpect(this.mazeSeed2.searchType, "s");
+    t.checkExpect(this.mazeSeed2.result.path,
+        new MazeSolver(this.mazeSeed2.board).solve(0, 15, SearchStrategy.BFS).path);
+    this.maze2x2Seed.onKeyEvent("g");
+    t.checkExpect(this.maze2x2Seed.searchType, "g");
+    t.checkExpect(this.maze2x2Seed.searching, true);
   }
 
 }
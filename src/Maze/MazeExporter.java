@@ -0,0 +1,443 @@
+package Maze;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import Structures.GridGraph;
+
+// writes a maze, and optionally a path through it, to a PNG or SVG file without drawing it
+// on screen, the way the window draws it: light gray cells size pixels wide, black walls on
+// the first pixel row/column of the cell below/right, and the path as white squares. unlike
+// the window, the border walls are drawn too
+// the PNG is encoded by hand a band of rows at a time, so nothing the size of the image is
+// ever in memory: each band is drawn as 2 bit palette scanlines and deflated on its own
+// (on a pool when one is given), and the bands are written in order as they finish, with at
+// most 2 per thread in flight. the deflated bands join into one zlib stream since every band
+// but the last ends on a byte boundary, and their checksums are combined
+// the SVG is streamed a row at a time, with the walls merged into runs, so it is one line per
+// run of wall rather than one per cell
+public class MazeExporter {
+  private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+  // the palette: cell, wall, path
+  private static final byte CELL = 0;
+  private static final byte WALL = 1;
+  private static final byte PATH = 2;
+  private static final byte[] PALETTE = {(byte) 192, (byte) 192, (byte) 192, 0, 0, 0,
+      (byte) 255, (byte) 255, (byte) 255};
+  // about how many bytes of scanlines a band holds before it is deflated
+  private static final int BAND_BYTES = 1 << 22;
+  private static final int ADLER_BASE = 65521;
+
+  private final GridGraph grid;
+  private final int size;
+  // the path from start to goal, and the cells on it
+  private final int[] path;
+  private final BitSet onPath;
+  // the path squares cover the pixels [inset, size - inset] of a cell each way
+  private final int inset;
+  private final int width;
+  private final int height;
+
+  // an exporter of grid with cells size pixels wide, and path (cells from start to goal, or
+  // empty) drawn on it
+  public MazeExporter(GridGraph grid, int[] path, int size) {
+    if (size < 2) {
+      throw new IllegalArgumentException("\nCells must be at least 2 pixels, got " + size);
+    }
+    if ((long) size * grid.c + 1 > Integer.MAX_VALUE
+            || (long) size * grid.r + 1 > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("\nA " + grid.r + "x" + grid.c + " maze is too big to "
+              + "draw with " + size + " pixel cells");
+    }
+    this.grid = grid;
+    this.size = size;
+    this.path = path;
+    this.onPath = new BitSet(grid.size());
+    for (int cell : path) {
+      this.onPath.set(cell);
+    }
+    this.inset = Math.max(1, Math.min(2, size / 4));
+    this.width = size * grid.c + 1;
+    this.height = size * grid.r + 1;
+  }
+
+  // the width and height of the picture, in pixels (or SVG units)
+  public int width() {
+    return this.width;
+  }
+
+  public int height() {
+    return this.height;
+  }
+
+  // writes the picture as a PNG, deflating the bands at level (Deflater's 0 to 9, or -1 for
+  // its default) on pool if it is not null, and returns the bytes written
+  // the picture is mostly runs of repeated rows, which deflate spends most of its time on:
+  // level 1 is about 3 times as fast as the default, for a file about twice the size
+  public long png(Path file, ForkJoinPool pool, int level) throws IOException {
+    if (level < -1 || level > 9) {
+      throw new IllegalArgumentException("\nThe compression level must be -1 to 9, got " + level);
+    }
+    int line = 1 + (this.width + 3) / 4;
+    int rowsPerBand = (int) Math.max(1, BAND_BYTES / ((long) line * this.size));
+    int bands = (this.grid.r + rowsPerBand - 1) / rowsPerBand;
+    int window = pool == null ? 1 : 2 * pool.getParallelism();
+    ArrayDeque<Future<Band>> running = new ArrayDeque<Future<Band>>();
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(file), 1 << 16))) {
+      out.write(SIGNATURE);
+      MazeExporter.chunk(out, "IHDR", new byte[] {
+          (byte) (this.width >>> 24), (byte) (this.width >>> 16), (byte) (this.width >>> 8),
+          (byte) this.width, (byte) (this.height >>> 24), (byte) (this.height >>> 16),
+          (byte) (this.height >>> 8), (byte) this.height,
+          2, 3, 0, 0, 0}, 13);
+      MazeExporter.chunk(out, "PLTE", PALETTE, PALETTE.length);
+      long adler = 1;
+      for (int b = 0, next = 0; b < bands; b++) {
+        // keep up to window bands deflating ahead of the one being written
+        for (; next < bands && running.size() < window; next++) {
+          int y0 = next * rowsPerBand;
+          int y1 = Math.min(this.grid.r, y0 + rowsPerBand);
+          if (pool == null) {
+            running.add(CompletableFuture.completedFuture(this.band(y0, y1, line, level)));
+          } else {
+            running.add(pool.submit(() -> this.band(y0, y1, line, level)));
+          }
+        }
+        Band band = MazeExporter.await(running.poll());
+        if (b == 0) {
+          // the zlib header: deflate with a 32K window, and which level it was
+          byte[] data = Arrays.copyOf(new byte[] {0x78, MazeExporter.levelFlag(level)},
+                  band.length + 2);
+          System.arraycopy(band.data, 0, data, 2, band.length);
+          band = new Band(data, band.length + 2, band.adler, band.raw);
+        }
+        adler = MazeExporter.combine(adler, band.adler, band.raw);
+        if (b == bands - 1) {
+          byte[] data = Arrays.copyOf(band.data, band.length + 4);
+          for (int i = 0; i < 4; i++) {
+            data[band.length + i] = (byte) (adler >>> (24 - 8 * i));
+          }
+          band = new Band(data, band.length + 4, band.adler, band.raw);
+        }
+        MazeExporter.chunk(out, "IDAT", band.data, band.length);
+      }
+      MazeExporter.chunk(out, "IEND", new byte[0], 0);
+    } finally {
+      for (Future<Band> f : running) {
+        f.cancel(true);
+      }
+    }
+    return Files.size(file);
+  }
+
+  // writes the picture as an SVG, in cell units scaled up to size pixels, and returns the
+  // bytes written
+  public long svg(Path file) throws IOException {
+    int r = this.grid.r;
+    int c = this.grid.c;
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + this.width
+              + "\" height=\"" + this.height + "\" viewBox=\"-0.05 -0.05 " + (c + 0.1) + " "
+              + (r + 0.1) + "\">\n");
+      out.write("<rect x=\"0\" y=\"0\" width=\"" + c + "\" height=\"" + r
+              + "\" fill=\"#c0c0c0\"/>\n");
+      out.write("<path fill=\"none\" stroke=\"#000\" stroke-width=\"0.1\" "
+              + "stroke-linecap=\"square\" d=\"");
+      // the row each wall line between columns j - 1 and j has run down from, or -1
+      int[] down = new int[c + 1];
+      Arrays.fill(down, -1);
+      for (int y = 0; y <= r; y++) {
+        // the walls along the top of row y, as runs across
+        int run = -1;
+        for (int x = 0; x <= c; x++) {
+          boolean wall = x < c && (y == 0 || y == r || !this.grid.isOpenSouth((y - 1) * c + x));
+          if (wall && run < 0) {
+            run = x;
+          } else if (!wall && run >= 0) {
+            out.write("M" + run + " " + y + "h" + (x - run) + "\n");
+            run = -1;
+          }
+        }
+        // the walls down the side of the cells in row y, as runs down
+        for (int j = 0; j <= c; j++) {
+          boolean wall = y < r && (j == 0 || j == c || !this.grid.isOpenEast(y * c + j - 1));
+          if (wall && down[j] < 0) {
+            down[j] = y;
+          } else if (!wall && down[j] >= 0) {
+            out.write("M" + j + " " + down[j] + "v" + (y - down[j]) + "\n");
+            down[j] = -1;
+          }
+        }
+      }
+      out.write("\"/>\n");
+      if (this.path.length > 0) {
+        out.write("<polyline fill=\"none\" stroke=\"#fff\" stroke-width=\"0.5\" "
+                + "stroke-linejoin=\"round\" stroke-linecap=\"round\" points=\"");
+        this.svgPath(out);
+        out.write("\"/>\n");
+      }
+      out.write("</svg>\n");
+    }
+    return Files.size(file);
+  }
+
+  // writes the centers of the path's cells, leaving out the ones in the middle of a straight
+  // run
+  private void svgPath(Writer out) throws IOException {
+    int c = this.grid.c;
+    for (int i = 0; i < this.path.length; i++) {
+      int cell = this.path[i];
+      if (i == 0 || i == this.path.length - 1
+              || cell - this.path[i - 1] != this.path[i + 1] - cell) {
+        out.write((cell % c + 0.5) + "," + (cell / c + 0.5) + " ");
+      }
+    }
+  }
+
+  // a deflated band, its length, and the checksum and length of its scanlines
+  private static class Band {
+    final byte[] data;
+    final int length;
+    final long adler;
+    final long raw;
+
+    Band(byte[] data, int length, long adler, long raw) {
+      this.data = data;
+      this.length = length;
+      this.adler = adler;
+      this.raw = raw;
+    }
+  }
+
+  // draws and deflates the scanlines of cell rows [y0, y1), and the bottom border if y1 is
+  // the last row. a scanline the same as the one before is written with the up filter, as
+  // zeros, so the rows through the middle of the cells cost next to nothing
+  private Band band(int y0, int y1, int line, int level) {
+    byte[] pixels = new byte[this.width];
+    byte[] walls = new byte[line];
+    byte[] cells = new byte[line];
+    byte[] path = new byte[line];
+    byte[] same = new byte[line];
+    same[0] = 2;
+    boolean last = y1 == this.grid.r;
+    Deflater deflater = new Deflater(level, true);
+    Output out = new Output(deflater, line);
+    try {
+      for (int y = y0; y < y1; y++) {
+        this.wallLine(y, pixels);
+        MazeExporter.pack(pixels, walls);
+        out.add(walls, same);
+        this.cellLine(y, pixels, false);
+        MazeExporter.pack(pixels, cells);
+        int from = y * this.grid.c;
+        int first = this.onPath.nextSetBit(from);
+        boolean hasPath = first >= 0 && first < from + this.grid.c;
+        if (hasPath) {
+          this.cellLine(y, pixels, true);
+          MazeExporter.pack(pixels, path);
+        }
+        for (int dy = 1; dy < this.size; dy++) {
+          out.add(hasPath && dy >= this.inset && dy <= this.size - this.inset ? path : cells,
+                  same);
+        }
+      }
+      if (last) {
+        this.wallLine(this.grid.r, pixels);
+        MazeExporter.pack(pixels, walls);
+        out.add(walls, same);
+      }
+      out.end(last);
+    } finally {
+      deflater.end();
+    }
+    return new Band(out.data, out.length, out.adler.getValue(), out.raw);
+  }
+
+  // the deflated scanlines of a band
+  private static class Output {
+    final Deflater deflater;
+    final Adler32 adler = new Adler32();
+    byte[] data;
+    int length;
+    // the bytes of scanlines deflated
+    long raw;
+    // the last scanline added
+    private byte[] previous;
+
+    Output(Deflater deflater, int line) {
+      this.deflater = deflater;
+      this.data = new byte[Math.max(1024, line)];
+    }
+
+    // deflates a scanline, or same (the up filter and zeros) if it is the one before again
+    void add(byte[] scanline, byte[] same) {
+      byte[] written = scanline == this.previous ? same : scanline;
+      this.previous = scanline;
+      this.deflater.setInput(written);
+      this.adler.update(written);
+      this.raw += written.length;
+      while (!this.deflater.needsInput()) {
+        this.deflate(Deflater.NO_FLUSH);
+      }
+    }
+
+    // finishes the stream if this is the last band, or else flushes it to a byte boundary
+    void end(boolean last) {
+      if (last) {
+        this.deflater.finish();
+        while (!this.deflater.finished()) {
+          this.deflate(Deflater.NO_FLUSH);
+        }
+      } else {
+        // a full buffer may mean there is more to come
+        while (this.deflate(Deflater.SYNC_FLUSH)) {
+          continue;
+        }
+      }
+    }
+
+    // deflates into the free end of data, growing it first if it is full, and returns whether
+    // the deflater filled it
+    private boolean deflate(int flush) {
+      if (this.length == this.data.length) {
+        this.data = Arrays.copyOf(this.data, this.data.length * 2);
+      }
+      int room = this.data.length - this.length;
+      int n = this.deflater.deflate(this.data, this.length, room, flush);
+      this.length += n;
+      return n == room;
+    }
+  }
+
+  // the pixels of the wall line along the top of cell row y (the bottom border if y is r),
+  // with the walls drawn a run at a time
+  private void wallLine(int y, byte[] pixels) {
+    int c = this.grid.c;
+    Arrays.fill(pixels, CELL);
+    int run = -1;
+    for (int x = 0; x <= c; x++) {
+      boolean wall = x < c && (y == 0 || y == this.grid.r
+              || !this.grid.isOpenSouth((y - 1) * c + x));
+      if (wall && run < 0) {
+        run = x;
+      } else if (!wall && run >= 0) {
+        Arrays.fill(pixels, this.size * run, this.size * x + 1, WALL);
+        run = -1;
+      }
+    }
+    // the corners, where the walls across meet the ones down
+    for (int x = 0; x <= c; x++) {
+      pixels[this.size * x] = WALL;
+    }
+  }
+
+  // the pixels of a line through the middle of cell row y, with the path's squares if
+  // withPath
+  private void cellLine(int y, byte[] pixels, boolean withPath) {
+    int c = this.grid.c;
+    Arrays.fill(pixels, CELL);
+    for (int j = 0; j <= c; j++) {
+      if (j == 0 || j == c || !this.grid.isOpenEast(y * c + j - 1)) {
+        pixels[this.size * j] = WALL;
+      }
+    }
+    if (withPath) {
+      int from = y * c;
+      for (int cell = this.onPath.nextSetBit(from); cell >= 0 && cell < from + c;
+           cell = this.onPath.nextSetBit(cell + 1)) {
+        int left = this.size * (cell - from);
+        Arrays.fill(pixels, left + this.inset, left + this.size - this.inset + 1, PATH);
+      }
+    }
+  }
+
+  // packs palette indexes 4 to a byte, after the filter byte (none)
+  private static void pack(byte[] pixels, byte[] line) {
+    line[0] = 0;
+    int full = pixels.length / 4;
+    for (int i = 0; i < full; i++) {
+      int p = 4 * i;
+      line[i + 1] = (byte) (pixels[p] << 6 | pixels[p + 1] << 4 | pixels[p + 2] << 2
+              | pixels[p + 3]);
+    }
+    if (full + 1 < line.length) {
+      int b = 0;
+      for (int p = 4 * full; p < pixels.length; p++) {
+        b |= pixels[p] << (6 - 2 * (p - 4 * full));
+      }
+      line[full + 1] = (byte) b;
+    }
+  }
+
+  // the adler-32 of two runs of bytes one after the other, from the checksum of each and the
+  // length of the second, as zlib's adler32_combine does
+  static long combine(long adler1, long adler2, long length2) {
+    long rem = length2 % ADLER_BASE;
+    long sum1 = adler1 & 0xFFFF;
+    long sum2 = rem * sum1 % ADLER_BASE;
+    sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+    sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + ADLER_BASE - rem;
+    if (sum1 >= ADLER_BASE) {
+      sum1 -= ADLER_BASE;
+    }
+    if (sum1 >= ADLER_BASE) {
+      sum1 -= ADLER_BASE;
+    }
+    if (sum2 >= 2L * ADLER_BASE) {
+      sum2 -= 2L * ADLER_BASE;
+    }
+    if (sum2 >= ADLER_BASE) {
+      sum2 -= ADLER_BASE;
+    }
+    return sum1 | sum2 << 16;
+  }
+
+  // the second byte of a zlib header after 0x78, which says roughly how hard deflate tried
+  private static byte levelFlag(int level) {
+    if (level == -1 || level == 6) {
+      return (byte) 0x9C;
+    }
+    return level < 2 ? 0x01 : level < 6 ? (byte) 0x5E : (byte) 0xDA;
+  }
+
+  // writes a PNG chunk: its length, type, the first length bytes of data, and its crc
+  private static void chunk(DataOutputStream out, String type, byte[] data, int length)
+          throws IOException {
+    byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+    CRC32 crc = new CRC32();
+    crc.update(name);
+    crc.update(data, 0, length);
+    out.writeInt(length);
+    out.write(name);
+    out.write(data, 0, length);
+    out.writeInt((int) crc.getValue());
+  }
+
+  // the band a future computed
+  private static Band await(Future<Band> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted writing a PNG", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Drawing a band of the PNG failed", e.getCause());
+    }
+  }
+}
@@ -1,30 +1,79 @@
 package Maze;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import Functions.GeneratorType;
+import Structures.MazeFile;
+
 //class for running main method
 public class MazeRunner {
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
+    //headless mode: generate and solve without a window
+    if (Arrays.asList(args).contains("--headless")) {
+      new Headless(args).run();
+      return;
+    }
+
     Maze maze;
     //default size: 30x50
     int row = 30;
     int col = 50;
+    //default seed: a random one, printed so the maze can be shown again
+    long seed = new SplittableRandom().nextLong();
+    //default generator: kruskal
+    GeneratorType generator = GeneratorType.KRUSKAL;
+    //default: generate a maze instead of opening one
+    String load = null;
+
+    //pull out "--seed S", "--generator G" and "--load FILE", the rest are the size
+    ArrayList<String> size = new ArrayList<String>();
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("--seed") || args[i].equals("--generator") || args[i].equals("--load")) {
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("\nMissing value for " + args[i]);
+        }
+        if (args[i].equals("--seed")) {
+          seed = Long.parseLong(args[++i]);
+        } else if (args[i].equals("--generator")) {
+          generator = GeneratorType.parse(args[++i]);
+        } else {
+          load = args[++i];
+        }
+      } else {
+        size.add(args[i]);
+      }
+    }
 
     //interpret the command-line arguments, construct maze with appropriate size
-    int length = args.length;
+    int length = size.size();
     switch (length) {
       case 0:
         //default size
         break;
       case 2:
         //input size
-        row = Integer.parseInt(args[0]);
-        col = Integer.parseInt(args[1]);
+        row = Integer.parseInt(size.get(0));
+        col = Integer.parseInt(size.get(1));
         break;
       default:
-        throw new IllegalArgumentException("\nIllegal command-line arguments. Enter number of rows and columns, or no input for default maze size");
+        throw new IllegalArgumentException("\nIllegal command-line arguments. Enter number of rows and columns, or no input for default maze size, optionally followed by --seed S and --generator G, or --load FILE");
     }
 
-    maze = new Maze(row, col);
+    if (load != null) {
+      //a saved maze has its own size
+      MazeFile file = MazeFile.open(Paths.get(load));
+      System.out.println("opened " + load + ": " + file.grid.r + "x" + file.grid.c + ", seed: "
+              + file.seed + ", generator: " + file.generator);
+      maze = new Maze(file.grid);
+    } else {
+      System.out.println("seed: " + seed + ", generator: " + generator.label());
+      maze = new Maze(row, col, seed, generator.generator());
+    }
     maze.bigBang(Maze.CELL_SIZE * maze.c,
-            Maze.CELL_SIZE * maze.r, 1.0 / 100.0);
+            Maze.CELL_SIZE * maze.r + Maze.STATUS_HEIGHT, 1.0 / 100.0);
   }
 }
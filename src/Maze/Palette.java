@@ -0,0 +1,63 @@
+package Maze;
+
+import java.awt.*;
+
+// the colors the search overlay paints visited cells with, built once per maze
+// a bidirectional search paints what it reaches from the end with a second gradient
+// the gradient runs across the columns (red) and down the rows (blue), and is cut into
+// at most BUCKETS steps each way, so a visited cell looks its color up instead of
+// allocating a new one. boards up to BUCKETS wide/tall get the exact gradient
+class Palette {
+  static final int BUCKETS = 64;
+
+  private final int r;
+  private final int c;
+  // how many steps the gradient has across the columns and down the rows
+  private final int cols;
+  private final int rows;
+  // the search color of bucket (bx, by) is at by * cols + bx
+  private final Color[] search;
+  // the same for cells a bidirectional search reached from the end, in blues and greens
+  private final Color[] back;
+
+  Palette(int r, int c) {
+    this.r = r;
+    this.c = c;
+    this.cols = Math.min(c, Palette.BUCKETS);
+    this.rows = Math.min(r, Palette.BUCKETS);
+    this.search = new Color[this.cols * this.rows];
+    this.back = new Color[this.cols * this.rows];
+    for (int by = 0; by < this.rows; by++) {
+      for (int bx = 0; bx < this.cols; bx++) {
+        double fx = (double) bx / this.cols;
+        double fy = (double) by / this.rows;
+        this.search[by * this.cols + bx] = new Color(255 - (int) (50 * fx), 140,
+                255 - (int) (225 * fy));
+        this.back[by * this.cols + bx] = new Color(140, 255 - (int) (225 * fy),
+                255 - (int) (50 * fx));
+      }
+    }
+  }
+
+  // the color of a visited cell in column x, row y
+  Color search(int x, int y) {
+    int bx = (int) ((long) x * this.cols / this.c);
+    int by = (int) ((long) y * this.rows / this.r);
+    return this.search[by * this.cols + bx];
+  }
+
+  // the color of a cell in column x, row y visited searching back from the end
+  Color back(int x, int y) {
+    int bx = (int) ((long) x * this.cols / this.c);
+    int by = (int) ((long) y * this.rows / this.r);
+    return this.back[by * this.cols + bx];
+  }
+
+  // the color of the last cell a search visits, once per search so it is not cached
+  Color found(int x, int y) {
+    double fx = (double) x / this.c;
+    double fy = (double) y / this.r;
+    return new Color(Math.max(225, 255 - (int) (255 * fx)), 140,
+            Math.max(0, 255 - (int) (225 * fy)));
+  }
+}
@@ -0,0 +1,50 @@
+package Maze;
+
+import java.awt.*;
+
+import Structures.ChunkStore;
+
+// draws a window of a maze kept in a ChunkStore, the way Maze draws a whole GridGraph:
+// cells the last search marked in the search gradient, its path in white, and the walls
+// only the chunks under the window are paged in, so any window of any size of maze can be
+// drawn in memory proportional to the window
+class Viewport {
+  // paints the rows x cols cells from column x0, row y0 into a new frame buffer, with the
+  // path (cells as y * c + x, or empty) on top
+  static FrameBuffer render(ChunkStore store, int x0, int y0, int rows, int cols, int size,
+                            long[] path) {
+    rows = Math.min(rows, store.r - y0);
+    cols = Math.min(cols, store.c - x0);
+    if (rows < 1 || cols < 1 || x0 < 0 || y0 < 0) {
+      throw new IllegalArgumentException("\nThe window at (" + x0 + ", " + y0
+              + ") is outside the " + store.r + "x" + store.c + " maze");
+    }
+    FrameBuffer frame = new FrameBuffer(rows, cols, size);
+    Palette palette = new Palette(store.r, store.c);
+    for (int y = 0; y < rows; y++) {
+      for (int x = 0; x < cols; x++) {
+        frame.fillCell(x, y, store.mark(x0 + x, y0 + y) == 0 ? Color.LIGHT_GRAY
+                : palette.search(x0 + x, y0 + y));
+      }
+    }
+    for (long cell : path) {
+      int x = (int) (cell % store.c) - x0;
+      int y = (int) (cell / store.c) - y0;
+      if (x >= 0 && x < cols && y >= 0 && y < rows) {
+        frame.fillInside(x, y, 2, Color.WHITE);
+      }
+    }
+    // the walls at the edge of the window are left off, like the ones around the maze
+    for (int y = 0; y < rows; y++) {
+      for (int x = 0; x < cols; x++) {
+        if (y < rows - 1 && !store.isOpenSouth(x0 + x, y0 + y)) {
+          frame.wallBelow(x, y, Color.BLACK);
+        }
+        if (x < cols - 1 && !store.isOpenEast(x0 + x, y0 + y)) {
+          frame.wallRight(x, y, Color.BLACK);
+        }
+      }
+    }
+    return frame;
+  }
+}
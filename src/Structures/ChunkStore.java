@@ -0,0 +1,485 @@
+package Structures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// a maze kept on disk in square chunks of side x side cells, paged in on demand through an
+// LRU cache that holds at most a given number of bytes of chunks, for mazes that do not fit
+// in memory. each chunk has the east and south passages of its cells (a bit each, the way
+// GridGraph has them) and a 4 bit search mark per cell, so a search can remember where it
+// came from without anything per cell on the heap. chunks are written back when evicted
+// dirty, and on flush/close
+// the cache is plain arrays: which slot each chunk is in, and a doubly linked list of the
+// slots from most to least recently used, so a lookup never allocates
+// cells are addressed by column and row, since a maze can have more cells than an int holds
+public class ChunkStore implements Closeable {
+  public static final int VERSION = 1;
+  private static final byte[] MAGIC = {'M', 'Z', 'C', 'K'};
+  private static final int HEADER = 64;
+  private static final int MAX_LABEL = 31;
+
+  public final int r;
+  public final int c;
+  public final int side;
+  // the seed and generator the maze was made with
+  public final long seed;
+  public final String generator;
+  // chunks per row of chunks, and rows of chunks
+  private final int across;
+  private final int down;
+  // longs in a chunk's passage planes, and in its marks (16 cells a long)
+  private final int words;
+  private final int markWords;
+  private final int chunkBytes;
+  private final FileChannel channel;
+  private final ByteBuffer io;
+
+  // the slot each chunk is in, or -1, and the chunk in each slot
+  private final int[] slotOf;
+  private final int[] chunkIn;
+  private final long[][] east;
+  private final long[][] south;
+  private final long[][] marks;
+  private final boolean[] dirty;
+  // the recently used list: newer/older neighbors of each slot, head is the newest
+  private final int[] newer;
+  private final int[] older;
+  private int head = -1;
+  private int tail = -1;
+  private int slots;
+  // the search marks in the file are from markEpoch[chunk], and only count if that is epoch
+  // epoch starts at 1, so marks left in the file by an earlier open never count
+  private final int[] markEpoch;
+  private int epoch = 1;
+
+  // the last chunk looked up, so runs of cells in one chunk skip the cache
+  private int lastChunk = -1;
+  private int lastSlot = -1;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long writeBacks;
+  private long pageInNanos;
+  private long maxPageInNanos;
+
+  // makes an r x c maze with every wall up, at path (replacing whatever is there), keeping
+  // at most budget bytes of chunks in memory. side must be a multiple of 64
+  public static ChunkStore create(Path path, int r, int c, int side, long seed,
+                                  String generator, long budget) throws IOException {
+    ChunkStore.check(r, c, side);
+    byte[] label = generator.getBytes(StandardCharsets.US_ASCII);
+    if (label.length > MAX_LABEL) {
+      throw new IllegalArgumentException("Generator label is longer than " + MAX_LABEL
+              + " characters: " + generator);
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+    header.put(MAGIC).putInt(VERSION).putInt(r).putInt(c).putInt(side).putLong(seed)
+            .put((byte) label.length).put(label);
+    header.clear();
+    ChunkStore.writeFully(channel, header, 0);
+    return new ChunkStore(channel, r, c, side, seed, generator, budget);
+  }
+
+  // opens a maze made by create, keeping at most budget bytes of chunks in memory
+  public static ChunkStore open(Path path, long budget) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+    if (channel.read(header, 0) < HEADER) {
+      channel.close();
+      throw new IOException(path + " is not a chunked maze, it is too short for a header");
+    }
+    header.flip();
+    byte[] magic = new byte[MAGIC.length];
+    header.get(magic);
+    int version = header.getInt();
+    if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+      channel.close();
+      throw new IOException(path + " is not a version " + VERSION + " chunked maze");
+    }
+    int r = header.getInt();
+    int c = header.getInt();
+    int side = header.getInt();
+    long seed = header.getLong();
+    byte[] label = new byte[Math.max(0, Math.min(MAX_LABEL, header.get()))];
+    header.get(label);
+    return new ChunkStore(channel, r, c, side, seed,
+            new String(label, StandardCharsets.US_ASCII), budget);
+  }
+
+  private ChunkStore(FileChannel channel, int r, int c, int side, long seed, String generator,
+                     long budget) {
+    ChunkStore.check(r, c, side);
+    this.channel = channel;
+    this.r = r;
+    this.c = c;
+    this.side = side;
+    this.seed = seed;
+    this.generator = generator;
+    this.across = (int) (((long) c + side - 1) / side);
+    this.down = (int) (((long) r + side - 1) / side);
+    this.words = side * side / 64;
+    this.markWords = side * side / 16;
+    this.chunkBytes = 8 * (2 * this.words + this.markWords);
+    this.io = ByteBuffer.allocateDirect(this.chunkBytes).order(ByteOrder.LITTLE_ENDIAN);
+
+    int chunks = this.across * this.down;
+    int capacity = (int) Math.max(1, Math.min(chunks, budget / this.chunkBytes));
+    this.slotOf = new int[chunks];
+    Arrays.fill(this.slotOf, -1);
+    this.markEpoch = new int[chunks];
+    this.chunkIn = new int[capacity];
+    this.east = new long[capacity][];
+    this.south = new long[capacity][];
+    this.marks = new long[capacity][];
+    this.dirty = new boolean[capacity];
+    this.newer = new int[capacity];
+    this.older = new int[capacity];
+  }
+
+  // throws if an r x c maze cannot be cut into chunks of side x side
+  private static void check(int r, int c, int side) {
+    if (r < 1 || c < 1) {
+      throw new IllegalArgumentException("A maze needs at least 1 row and column, got "
+              + r + "x" + c);
+    }
+    if (side < 64 || side % 64 != 0 || side > 1 << 14) {
+      throw new IllegalArgumentException("Chunk side must be a multiple of 64 up to "
+              + (1 << 14) + ", got " + side);
+    }
+    if (((long) r + side - 1) / side * (((long) c + side - 1) / side) > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many chunks for a " + r + "x" + c
+              + " maze, use bigger ones than " + side);
+    }
+  }
+
+  // the number of cells
+  public long size() {
+    return (long) this.r * this.c;
+  }
+
+  // the number of chunks the maze is cut into
+  public int chunks() {
+    return this.slotOf.length;
+  }
+
+  // the most chunks the cache holds at once
+  public int capacity() {
+    return this.chunkIn.length;
+  }
+
+  // the bytes one chunk takes, on disk and in the cache
+  public int chunkBytes() {
+    return this.chunkBytes;
+  }
+
+  // checks if there is a passage from cell (x, y) to its east neighbor
+  public boolean isOpenEast(int x, int y) {
+    int s = this.slot(x, y);
+    int bit = this.bit(x, y);
+    return (this.east[s][bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  // checks if there is a passage from cell (x, y) to its south neighbor
+  public boolean isOpenSouth(int x, int y) {
+    int s = this.slot(x, y);
+    int bit = this.bit(x, y);
+    return (this.south[s][bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  // knocks down the wall between cell (x, y) and its east neighbor
+  public void openEast(int x, int y) {
+    int s = this.slot(x, y);
+    int bit = this.bit(x, y);
+    this.east[s][bit >>> 6] |= 1L << bit;
+    this.dirty[s] = true;
+  }
+
+  // knocks down the wall between cell (x, y) and its south neighbor
+  public void openSouth(int x, int y) {
+    int s = this.slot(x, y);
+    int bit = this.bit(x, y);
+    this.south[s][bit >>> 6] |= 1L << bit;
+    this.dirty[s] = true;
+  }
+
+  // the directions cell (x, y) has passages in, as bits 1 << GridGraph's passage order:
+  // left, right, below, top
+  public int passages(int x, int y) {
+    int n = 0;
+    if (x > 0 && this.isOpenEast(x - 1, y)) {
+      n |= 1;
+    }
+    if (x < this.c - 1 && this.isOpenEast(x, y)) {
+      n |= 2;
+    }
+    if (y < this.r - 1 && this.isOpenSouth(x, y)) {
+      n |= 4;
+    }
+    if (y > 0 && this.isOpenSouth(x, y - 1)) {
+      n |= 8;
+    }
+    return n;
+  }
+
+  // the search mark of cell (x, y), 0 until a search sets it
+  public int mark(int x, int y) {
+    int s = this.slot(x, y);
+    int bit = this.bit(x, y);
+    return (int) (this.marks[s][bit >>> 4] >>> ((bit & 15) << 2)) & 15;
+  }
+
+  // sets the search mark of cell (x, y) to a value in [0, 16)
+  public void setMark(int x, int y, int mark) {
+    int s = this.slot(x, y);
+    int bit = this.bit(x, y);
+    int shift = (bit & 15) << 2;
+    long[] m = this.marks[s];
+    m[bit >>> 4] = m[bit >>> 4] & ~(15L << shift) | (long) mark << shift;
+    this.dirty[s] = true;
+  }
+
+  // sets every search mark back to 0, without touching the chunks that are not in memory
+  public void clearMarks() {
+    this.epoch++;
+    for (int s = 0; s < this.slots; s++) {
+      Arrays.fill(this.marks[s], 0);
+    }
+  }
+
+  // writes row y, where bit x of east (south) is set if there is a passage east (south) of
+  // column x, the way EllerGenerator hands out its rows
+  public void row(int y, long[] east, long[] south) {
+    int rowWords = this.side / 64;
+    for (int cx = 0; cx < this.across; cx++) {
+      int s = this.slot(cx * this.side, y);
+      int to = (y % this.side) * rowWords;
+      int from = cx * rowWords;
+      for (int w = 0; w < rowWords && from + w < east.length; w++) {
+        this.east[s][to + w] = east[from + w];
+        this.south[s][to + w] = south[from + w];
+      }
+      this.dirty[s] = true;
+    }
+  }
+
+  // writes every dirty chunk in memory back to disk
+  public void flush() throws IOException {
+    for (int s = 0; s < this.slots; s++) {
+      if (this.dirty[s]) {
+        this.writeBack(s);
+      }
+    }
+  }
+
+  // flushes, and closes the file
+  @Override
+  public void close() throws IOException {
+    this.flush();
+    this.channel.close();
+  }
+
+  // lookups answered from memory
+  public long hits() {
+    return this.hits;
+  }
+
+  // lookups that had to read a chunk from disk
+  public long misses() {
+    return this.misses;
+  }
+
+  // the share of lookups answered from memory, 1 if there were none
+  public double hitRate() {
+    long total = this.hits + this.misses;
+    return total == 0 ? 1 : (double) this.hits / total;
+  }
+
+  // chunks dropped from memory to make room
+  public long evictions() {
+    return this.evictions;
+  }
+
+  // chunks written to disk, on eviction or flush
+  public long writeBacks() {
+    return this.writeBacks;
+  }
+
+  // the mean time to read a chunk from disk, including writing back the one it replaced
+  public double averagePageInNanos() {
+    return this.misses == 0 ? 0 : (double) this.pageInNanos / this.misses;
+  }
+
+  // the longest time to read a chunk from disk
+  public long maxPageInNanos() {
+    return this.maxPageInNanos;
+  }
+
+  // starts the counters over
+  public void resetStats() {
+    this.hits = 0;
+    this.misses = 0;
+    this.evictions = 0;
+    this.writeBacks = 0;
+    this.pageInNanos = 0;
+    this.maxPageInNanos = 0;
+  }
+
+  // the counters, on one line
+  public String stats() {
+    return String.format("hits %d, misses %d (hit rate %.2f%%), page-in avg %.1f us max %.1f us,"
+                    + " evictions %d, write-backs %d", this.hits, this.misses,
+            100 * this.hitRate(), this.averagePageInNanos() / 1e3, this.maxPageInNanos / 1e3,
+            this.evictions, this.writeBacks);
+  }
+
+  // the bit of cell (x, y) within its chunk
+  private int bit(int x, int y) {
+    return (y % this.side) * this.side + x % this.side;
+  }
+
+  // the slot the chunk of cell (x, y) is in, paging it in if it is not
+  private int slot(int x, int y) {
+    if (x < 0 || x >= this.c || y < 0 || y >= this.r) {
+      throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is not in a "
+              + this.r + "x" + this.c + " maze");
+    }
+    int chunk = (y / this.side) * this.across + x / this.side;
+    if (chunk == this.lastChunk) {
+      this.hits++;
+      return this.lastSlot;
+    }
+    int s = this.slotOf[chunk];
+    if (s >= 0) {
+      this.hits++;
+      this.unlink(s);
+    } else {
+      s = this.pageIn(chunk);
+    }
+    this.pushFront(s);
+    this.lastChunk = chunk;
+    this.lastSlot = s;
+    return s;
+  }
+
+  // reads a chunk into a free slot, or into the least recently used one's, returns the slot
+  private int pageIn(int chunk) {
+    long start = System.nanoTime();
+    this.misses++;
+    int s;
+    if (this.slots < this.chunkIn.length) {
+      s = this.slots++;
+      this.east[s] = new long[this.words];
+      this.south[s] = new long[this.words];
+      this.marks[s] = new long[this.markWords];
+    } else {
+      s = this.tail;
+      this.unlink(s);
+      if (this.dirty[s]) {
+        this.writeBack(s);
+      }
+      this.slotOf[this.chunkIn[s]] = -1;
+      this.evictions++;
+    }
+
+    try {
+      this.io.clear();
+      while (this.io.hasRemaining()) {
+        if (this.channel.read(this.io, this.offset(chunk) + this.io.position()) < 0) {
+          // past the end of the file: never written, so every wall is up
+          while (this.io.hasRemaining()) {
+            this.io.put((byte) 0);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read chunk " + chunk, e);
+    }
+    this.io.flip();
+    LongBuffer longs = this.io.asLongBuffer();
+    longs.get(this.east[s]);
+    longs.get(this.south[s]);
+    longs.get(this.marks[s]);
+    if (this.markEpoch[chunk] != this.epoch) {
+      Arrays.fill(this.marks[s], 0);
+    }
+    this.chunkIn[s] = chunk;
+    this.slotOf[chunk] = s;
+    this.dirty[s] = false;
+
+    long nanos = System.nanoTime() - start;
+    this.pageInNanos += nanos;
+    this.maxPageInNanos = Math.max(this.maxPageInNanos, nanos);
+    return s;
+  }
+
+  // writes the chunk in a slot to disk
+  private void writeBack(int s) {
+    int chunk = this.chunkIn[s];
+    this.io.clear();
+    LongBuffer longs = this.io.asLongBuffer();
+    longs.put(this.east[s]);
+    longs.put(this.south[s]);
+    longs.put(this.marks[s]);
+    try {
+      ChunkStore.writeFully(this.channel, this.io, this.offset(chunk));
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write chunk " + chunk, e);
+    }
+    this.markEpoch[chunk] = this.epoch;
+    this.dirty[s] = false;
+    this.writeBacks++;
+  }
+
+  // where a chunk starts in the file
+  private long offset(int chunk) {
+    return HEADER + (long) chunk * this.chunkBytes;
+  }
+
+  // writes all of a buffer at a position in a file
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long at)
+          throws IOException {
+    while (buffer.hasRemaining()) {
+      at += channel.write(buffer, at);
+    }
+  }
+
+  // takes a slot out of the recently used list
+  private void unlink(int s) {
+    if (this.newer[s] >= 0) {
+      this.older[this.newer[s]] = this.older[s];
+    } else {
+      this.head = this.older[s];
+    }
+    if (this.older[s] >= 0) {
+      this.newer[this.older[s]] = this.newer[s];
+    } else {
+      this.tail = this.newer[s];
+    }
+  }
+
+  // puts a slot at the front of the recently used list
+  private void pushFront(int s) {
+    this.newer[s] = -1;
+    this.older[s] = this.head;
+    if (this.head >= 0) {
+      this.newer[this.head] = s;
+    }
+    this.head = s;
+    if (this.tail < 0) {
+      this.tail = s;
+    }
+  }
+}
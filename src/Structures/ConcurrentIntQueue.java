@@ -0,0 +1,122 @@
+package Structures;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// a bounded queue of non-negative ints that any number of threads can add to and remove
+// from at once without locks, for searches that expand their frontier on several threads
+// it is Vyukov's bounded MPMC queue: every slot has a sequence number that says whose turn
+// it is, the one adding the item for ticket t waits for it to be t and the one removing it
+// for t + 1. a thread claims a ticket with one compare and set on the tail (or head), then
+// writes (or reads) its slot and passes the slot on by bumping its sequence with a release
+// store, which publishes the item to whoever reads the sequence with an acquire load, so no
+// thread ever waits on a lock another thread holds
+// the capacity is rounded up to a power of two and never grows
+public class ConcurrentIntQueue implements IntCollection {
+  // what poll returns when the queue is empty
+  public static final int EMPTY = -1;
+
+  private final int[] items;
+  private final AtomicLongArray sequence;
+  private final int mask;
+  // the next tickets to add and to remove at
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  // a queue with room for at least capacity items
+  public ConcurrentIntQueue(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and " + (1 << 30)
+              + ", got " + capacity);
+    }
+    int slots = Integer.highestOneBit(capacity);
+    if (slots < capacity) {
+      slots <<= 1;
+    }
+    this.items = new int[slots];
+    this.sequence = new AtomicLongArray(slots);
+    this.mask = slots - 1;
+    // plain writes are enough here, the final field publishes them with the queue
+    for (int i = 0; i < slots; i++) {
+      this.sequence.setPlain(i, i);
+    }
+  }
+
+  // the number of items the queue holds when full
+  public int capacity() {
+    return this.items.length;
+  }
+
+  // checks if the queue is empty, which other threads may change straight after
+  public boolean isEmpty() {
+    return this.head.get() >= this.tail.get();
+  }
+
+  // adds an item to the back of the queue, returns false if the queue is full
+  public boolean offer(int item) {
+    if (item < 0) {
+      throw new IllegalArgumentException("Only non-negative ints can be queued, got " + item);
+    }
+    long ticket = this.tail.get();
+    while (true) {
+      int slot = (int) ticket & this.mask;
+      long turn = this.sequence.getAcquire(slot) - ticket;
+      if (turn == 0) {
+        if (this.tail.compareAndSet(ticket, ticket + 1)) {
+          break;
+        }
+        ticket = this.tail.get();
+      } else if (turn < 0) {
+        // the slot still holds the item from a lap ago
+        return false;
+      } else {
+        ticket = this.tail.get();
+      }
+    }
+    int slot = (int) ticket & this.mask;
+    this.items[slot] = item;
+    this.sequence.setRelease(slot, ticket + 1);
+    return true;
+  }
+
+  // removes and returns the item at the front of the queue, or EMPTY if there is none
+  public int poll() {
+    long ticket = this.head.get();
+    while (true) {
+      int slot = (int) ticket & this.mask;
+      long turn = this.sequence.getAcquire(slot) - (ticket + 1);
+      if (turn == 0) {
+        if (this.head.compareAndSet(ticket, ticket + 1)) {
+          break;
+        }
+        ticket = this.head.get();
+      } else if (turn < 0) {
+        // nothing has been added at this ticket yet
+        return EMPTY;
+      } else {
+        ticket = this.head.get();
+      }
+    }
+    int slot = (int) ticket & this.mask;
+    int item = this.items[slot];
+    this.sequence.setRelease(slot, ticket + this.items.length);
+    return item;
+  }
+
+  // adds an item to the back of the queue, throws if it is full
+  public void addInt(int item) {
+    if (!this.offer(item)) {
+      throw new IllegalStateException("The queue is full");
+    }
+  }
+
+  // returns the item at the front of the queue and removes it, throws if it is empty
+  public int removeInt() {
+    int item = this.poll();
+    if (item == EMPTY) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    return item;
+  }
+}
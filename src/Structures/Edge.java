@@ -28,7 +28,8 @@ public class Edge {
 
   @Override
   // generates hashcode for an edge
+  // like equals, direction is not important: the packed ends are summed before mixing
   public int hashCode() {
-    return this.from.p.x * 1000000 - this.from.p.x * 13 + this.to.p.x * 90000 + this.to.p.y * 2;
+    return Vertex.mix(Vertex.pack(this.from.p) + Vertex.pack(this.to.p));
   }
 }
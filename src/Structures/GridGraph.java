@@ -0,0 +1,234 @@
+package Structures;
+
+import java.nio.LongBuffer;
+
+// represents a rectangular maze as a grid graph without any per-cell objects
+// cell (x, y) has index y * c + x. each cell owns the wall on its east side and the
+// wall on its south side, so every undirected edge is stored exactly once:
+// edge id = cell * 2 + EAST or cell * 2 + SOUTH
+// a set bit in east/south means the wall has been knocked down (there is a passage)
+// once a generator is done with a grid it freezes it, and from then on it is read only
+// the bits live in LongBuffers, over long arrays for a grid being generated, or straight
+// over a mapped file for one MazeFile opened, which is never copied onto the heap
+public class GridGraph {
+  public static final int EAST = 0;
+  public static final int SOUTH = 1;
+
+  public final int r;
+  public final int c;
+  private final LongBuffer east;
+  private final LongBuffer south;
+  // null for a grid opened from a file, which only has walls
+  private final byte[] eastWeight;
+  private final byte[] southWeight;
+  private boolean frozen = false;
+
+  public GridGraph(int r, int c) {
+    GridGraph.checkSize(r, c);
+    this.r = r;
+    this.c = c;
+    int size = r * c;
+    this.east = LongBuffer.wrap(new long[GridGraph.words(size)]);
+    this.south = LongBuffer.wrap(new long[GridGraph.words(size)]);
+    this.eastWeight = new byte[size];
+    this.southWeight = new byte[size];
+  }
+
+  // a frozen grid over walls that are already there, with every weight 0
+  // east and south must hold words(r * c) longs each
+  GridGraph(int r, int c, LongBuffer east, LongBuffer south) {
+    this.r = r;
+    this.c = c;
+    this.east = east;
+    this.south = south;
+    this.eastWeight = null;
+    this.southWeight = null;
+    this.frozen = true;
+  }
+
+  // throws if an r x c grid is too small or too big to number its edges with ints
+  static void checkSize(int r, int c) {
+    if (r < 1 || c < 1 || (long) r * c * 2 > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Grid must have between 1 and "
+              + (Integer.MAX_VALUE / 2) + " cells, got " + r + "x" + c);
+    }
+  }
+
+  // how many longs a bitset of n bits takes
+  static int words(int n) {
+    return (n + 63) >>> 6;
+  }
+
+  // the passages to the east, one bit per cell
+  LongBuffer eastWords() {
+    return this.east;
+  }
+
+  // the passages to the south, one bit per cell
+  LongBuffer southWords() {
+    return this.south;
+  }
+
+  // the number of cells in the grid
+  public int size() {
+    return this.r * this.c;
+  }
+
+  // the index of the cell in column x, row y
+  public int index(int x, int y) {
+    return y * this.c + x;
+  }
+
+  // the column of a cell
+  public int x(int cell) {
+    return cell % this.c;
+  }
+
+  // the row of a cell
+  public int y(int cell) {
+    return cell / this.c;
+  }
+
+  // checks if a cell has a neighbor to its east
+  public boolean hasEast(int cell) {
+    return cell % this.c != this.c - 1;
+  }
+
+  // checks if a cell has a neighbor to its south
+  public boolean hasSouth(int cell) {
+    return cell < this.size() - this.c;
+  }
+
+  // checks if there is a passage from a cell to its east neighbor
+  public boolean isOpenEast(int cell) {
+    return (this.east.get(cell >>> 6) & (1L << cell)) != 0;
+  }
+
+  // checks if there is a passage from a cell to its south neighbor
+  public boolean isOpenSouth(int cell) {
+    return (this.south.get(cell >>> 6) & (1L << cell)) != 0;
+  }
+
+  // knocks down the wall between a cell and its east neighbor
+  public void openEast(int cell) {
+    this.checkNotFrozen();
+    this.east.put(cell >>> 6, this.east.get(cell >>> 6) | 1L << cell);
+  }
+
+  // knocks down the wall between a cell and its south neighbor
+  public void openSouth(int cell) {
+    this.checkNotFrozen();
+    this.south.put(cell >>> 6, this.south.get(cell >>> 6) | 1L << cell);
+  }
+
+  // checks if there is a passage through the given edge
+  public boolean isOpen(int edge) {
+    return (edge & 1) == EAST ? this.isOpenEast(edge >>> 1) : this.isOpenSouth(edge >>> 1);
+  }
+
+  // knocks down the wall of the given edge
+  public void open(int edge) {
+    if ((edge & 1) == EAST) {
+      this.openEast(edge >>> 1);
+    } else {
+      this.openSouth(edge >>> 1);
+    }
+  }
+
+  // checks if the given edge id joins two cells of this grid
+  public boolean isEdge(int edge) {
+    return (edge & 1) == EAST ? this.hasEast(edge >>> 1) : this.hasSouth(edge >>> 1);
+  }
+
+  // the cell on the far side of an edge from its owning cell
+  public int other(int edge) {
+    return (edge & 1) == EAST ? (edge >>> 1) + 1 : (edge >>> 1) + this.c;
+  }
+
+  // the weight of an edge, 0 for a grid opened from a file
+  public int weight(int edge) {
+    if (this.eastWeight == null) {
+      return 0;
+    }
+    return (edge & 1) == EAST ? this.eastWeight[edge >>> 1] : this.southWeight[edge >>> 1];
+  }
+
+  // sets the weight of an edge, weights must fit in [0, 127]
+  public void setWeight(int edge, int weight) {
+    this.checkNotFrozen();
+    if ((edge & 1) == EAST) {
+      this.eastWeight[edge >>> 1] = (byte) weight;
+    } else {
+      this.southWeight[edge >>> 1] = (byte) weight;
+    }
+  }
+
+  // makes the grid read only, returns it
+  public GridGraph freeze() {
+    this.frozen = true;
+    return this;
+  }
+
+  // checks if the grid is read only
+  public boolean isFrozen() {
+    return this.frozen;
+  }
+
+  // throws if the grid can no longer be changed
+  private void checkNotFrozen() {
+    if (this.frozen) {
+      throw new IllegalStateException("The maze has already been generated");
+    }
+  }
+
+  // writes every cell next to a cell into out, walls or not, in the same order as passages
+  // returns how many were written, out must have room for 4
+  public int neighbors(int cell, int[] out) {
+    int n = 0;
+    if (cell % this.c != 0) {
+      out[n++] = cell - 1;
+    }
+    if (this.hasEast(cell)) {
+      out[n++] = cell + 1;
+    }
+    if (this.hasSouth(cell)) {
+      out[n++] = cell + this.c;
+    }
+    if (cell >= this.c) {
+      out[n++] = cell - this.c;
+    }
+    return n;
+  }
+
+  // the id of the edge between two neighboring cells
+  public int edge(int a, int b) {
+    int lo = Math.min(a, b);
+    return Math.max(a, b) - lo == this.c ? lo * 2 + SOUTH : lo * 2 + EAST;
+  }
+
+  // checks if another grid has the same size and the same passages
+  public boolean sameWalls(GridGraph other) {
+    return this.r == other.r && this.c == other.c && this.east.equals(other.east)
+            && this.south.equals(other.south);
+  }
+
+  // writes the cells reachable in one step from a cell into out, in the order
+  // left, right, below, top (the order createBoard used to add out edges)
+  // returns how many were written, out must have room for 4
+  public int passages(int cell, int[] out) {
+    int n = 0;
+    if (cell % this.c != 0 && this.isOpenEast(cell - 1)) {
+      out[n++] = cell - 1;
+    }
+    if (this.isOpenEast(cell)) {
+      out[n++] = cell + 1;
+    }
+    if (this.isOpenSouth(cell)) {
+      out[n++] = cell + this.c;
+    }
+    if (cell >= this.c && this.isOpenSouth(cell - this.c)) {
+      out[n++] = cell - this.c;
+    }
+    return n;
+  }
+}
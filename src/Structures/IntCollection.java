@@ -0,0 +1,41 @@
+package Structures;
+
+// a queue or stack of ints, like the cells of a maze, that adds and removes them without
+// boxing. add and remove still work through ICollection, boxing the way they always did,
+// so a search written against ICollection<Integer> takes one as it is
+public interface IntCollection extends ICollection<Integer> {
+  // adds an item to the end of the collection
+  void addInt(int item);
+
+  // returns the first item in the collection and removes it
+  int removeInt();
+
+  default void add(Integer item) {
+    this.addInt(item);
+  }
+
+  default Integer remove() {
+    return this.removeInt();
+  }
+
+  // the collection itself if it already is an IntCollection, or else a view of it that
+  // boxes, so a loop can always call addInt and removeInt
+  static IntCollection of(ICollection<Integer> items) {
+    if (items instanceof IntCollection) {
+      return (IntCollection) items;
+    }
+    return new IntCollection() {
+      public boolean isEmpty() {
+        return items.isEmpty();
+      }
+
+      public void addInt(int item) {
+        items.add(item);
+      }
+
+      public int removeInt() {
+        return items.remove();
+      }
+    };
+  }
+}
@@ -0,0 +1,120 @@
+package Structures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// a binary min heap of the ints [0, n), each with a long key, stored in plain arrays
+// an item is in the heap at most once, and its key can be lowered while it is in it,
+// so a search or spanning tree never piles up stale copies of a cell
+public class IntHeap {
+  private final int[] heap;
+  // where each item is in heap, or -1 if it is not in the heap
+  private final int[] pos;
+  private final long[] key;
+  private int size;
+
+  public IntHeap(int n) {
+    this.heap = new int[n];
+    this.pos = new int[n];
+    this.key = new long[n];
+    Arrays.fill(this.pos, -1);
+  }
+
+  // checks if the heap is empty
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  // the number of items in the heap
+  public int size() {
+    return this.size;
+  }
+
+  // checks if an item is in the heap
+  public boolean contains(int item) {
+    return this.pos[item] >= 0;
+  }
+
+  // the key of an item in the heap, or the last key it had once it has been polled
+  public long key(int item) {
+    return this.key[item];
+  }
+
+  // adds an item with a key, or lowers its key if it is already in the heap with a
+  // larger one. returns false if nothing changed
+  public boolean offer(int item, long key) {
+    if (this.pos[item] < 0) {
+      this.pos[item] = this.size;
+      this.heap[this.size++] = item;
+    } else if (key >= this.key[item]) {
+      return false;
+    }
+    this.key[item] = key;
+    this.up(this.pos[item]);
+    return true;
+  }
+
+  // removes and returns the item with the smallest key
+  public int poll() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The heap is empty");
+    }
+    int top = this.heap[0];
+    this.pos[top] = -1;
+    this.size--;
+    if (this.size > 0) {
+      this.heap[0] = this.heap[this.size];
+      this.pos[this.heap[0]] = 0;
+      this.down(0);
+    }
+    return top;
+  }
+
+  // empties the heap
+  public void clear() {
+    for (int i = 0; i < this.size; i++) {
+      this.pos[this.heap[i]] = -1;
+    }
+    this.size = 0;
+  }
+
+  // moves the item at i up until its parent's key is no larger
+  private void up(int i) {
+    int item = this.heap[i];
+    long k = this.key[item];
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (this.key[this.heap[parent]] <= k) {
+        break;
+      }
+      this.heap[i] = this.heap[parent];
+      this.pos[this.heap[i]] = i;
+      i = parent;
+    }
+    this.heap[i] = item;
+    this.pos[item] = i;
+  }
+
+  // moves the item at i down until its children's keys are no smaller
+  private void down(int i) {
+    int item = this.heap[i];
+    long k = this.key[item];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= this.size) {
+        break;
+      }
+      if (child + 1 < this.size && this.key[this.heap[child + 1]] < this.key[this.heap[child]]) {
+        child++;
+      }
+      if (this.key[this.heap[child]] >= k) {
+        break;
+      }
+      this.heap[i] = this.heap[child];
+      this.pos[this.heap[i]] = i;
+      i = child;
+    }
+    this.heap[i] = item;
+    this.pos[item] = i;
+  }
+}
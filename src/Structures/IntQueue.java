@@ -0,0 +1,68 @@
+package Structures;
+
+import java.util.NoSuchElementException;
+
+// a queue of ints in a ring buffer, which doubles when it fills up
+// give it the most items it will hold at once (for a search, at most the cells of the grid)
+// and it never grows
+public class IntQueue implements IntCollection {
+  private int[] items;
+  // where the first item is, and how many there are
+  private int head;
+  private int size;
+
+  public IntQueue() {
+    this(16);
+  }
+
+  // a queue with room for capacity items before it has to grow
+  public IntQueue(int capacity) {
+    this.items = new int[Math.max(1, capacity)];
+  }
+
+  // checks if the queue is empty
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  // the number of items in the queue
+  public int size() {
+    return this.size;
+  }
+
+  // adds an item to the back of the queue
+  public void addInt(int item) {
+    if (this.size == this.items.length) {
+      this.grow();
+    }
+    int tail = this.head + this.size;
+    if (tail >= this.items.length) {
+      tail -= this.items.length;
+    }
+    this.items[tail] = item;
+    this.size++;
+  }
+
+  // returns the item at the front of the queue and removes it
+  public int removeInt() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    int item = this.items[this.head];
+    if (++this.head == this.items.length) {
+      this.head = 0;
+    }
+    this.size--;
+    return item;
+  }
+
+  // unrolls the ring into one twice as big, the front first
+  private void grow() {
+    int[] bigger = new int[this.items.length * 2];
+    int first = this.items.length - this.head;
+    System.arraycopy(this.items, this.head, bigger, 0, first);
+    System.arraycopy(this.items, 0, bigger, first, this.head);
+    this.items = bigger;
+    this.head = 0;
+  }
+}
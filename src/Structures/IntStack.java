@@ -0,0 +1,47 @@
+package Structures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// a stack of ints in an array, which doubles when it fills up
+// give it the most items it will hold at once (for a search, at most the cells of the grid)
+// and it never grows
+public class IntStack implements IntCollection {
+  private int[] items;
+  private int size;
+
+  public IntStack() {
+    this(16);
+  }
+
+  // a stack with room for capacity items before it has to grow
+  public IntStack(int capacity) {
+    this.items = new int[Math.max(1, capacity)];
+  }
+
+  // checks if the stack is empty
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  // the number of items on the stack
+  public int size() {
+    return this.size;
+  }
+
+  // pushes an item onto the stack
+  public void addInt(int item) {
+    if (this.size == this.items.length) {
+      this.items = Arrays.copyOf(this.items, this.items.length * 2);
+    }
+    this.items[this.size++] = item;
+  }
+
+  // returns the item on top of the stack and removes it
+  public int removeInt() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The stack is empty");
+    }
+    return this.items[--this.size];
+  }
+}
@@ -0,0 +1,47 @@
+package Structures;
+
+// represents a priority queue of cells, smallest key first, for best-first searches
+// the key of a cell comes from a Priority, given the cell and how many steps from the
+// start it was reached at: one more than the cell removed last, which in a perfect maze
+// is the only way to reach it. the cells live in an IntHeap, so a cell is queued at most
+// once and adding it again with a smaller key just moves it up
+public class MHeap implements IntCollection {
+  // how cells are ordered
+  public interface Priority {
+    // the key of a cell reached after steps steps, smaller keys are removed first
+    long key(int cell, int steps);
+  }
+
+  private final IntHeap heap;
+  private final Priority priority;
+  // steps from the start to each cell, as of when it was last queued
+  private final int[] steps;
+  // the cell removed last, -1 before the first
+  private int current = -1;
+
+  // a queue for the cells [0, n)
+  public MHeap(int n, Priority priority) {
+    this.heap = new IntHeap(n);
+    this.priority = priority;
+    this.steps = new int[n];
+  }
+
+  // checks if the queue is empty
+  public boolean isEmpty() {
+    return this.heap.isEmpty();
+  }
+
+  // adds a cell to the queue, one step further than the cell removed last
+  public void addInt(int item) {
+    int s = this.current < 0 ? 0 : this.steps[this.current] + 1;
+    if (this.heap.offer(item, this.priority.key(item, s))) {
+      this.steps[item] = s;
+    }
+  }
+
+  // returns the cell with the smallest key and removes it
+  public int removeInt() {
+    this.current = this.heap.poll();
+    return this.current;
+  }
+}
@@ -1,13 +1,14 @@
 package Structures;
 
-import java.util.Stack;
+import java.util.ArrayDeque;
 
 // represents a stack
+// it is an ArrayDeque rather than a java.util.Stack, which locks on every push and pop
 public class MStack<T> implements ICollection<T> {
-  private Stack<T> contents;
+  private ArrayDeque<T> contents;
 
   public MStack() {
-    this.contents = new Stack<T>();
+    this.contents = new ArrayDeque<T>();
   }
 
   // checks if the stack is empty
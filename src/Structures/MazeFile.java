@@ -0,0 +1,196 @@
+package Structures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// a maze on disk: a 64 byte header, then the east and then the south passages of the grid,
+// one bit per cell each as little endian longs, so about 2 bits per cell in all
+// the header is "MAZE", the format version, rows, cols (ints), the seed (a long), and the
+// generator's label (a length byte and up to 31 ascii bytes), padded with zeros
+// opening a file maps it and lays a frozen grid straight over the mapping, so nothing is
+// parsed or copied onto the heap however big the maze is, and the pages are read as the
+// maze is used. a Writer writes a maze a row at a time, for mazes streamed out of a generator
+// that are too big to hold as a GridGraph
+public class MazeFile {
+  public static final int VERSION = 1;
+  private static final byte[] MAGIC = {'M', 'A', 'Z', 'E'};
+  private static final int HEADER = 64;
+  private static final int MAX_LABEL = 31;
+
+  public final GridGraph grid;
+  // the seed and generator the maze was made with
+  public final long seed;
+  public final String generator;
+
+  private MazeFile(GridGraph grid, long seed, String generator) {
+    this.grid = grid;
+    this.seed = seed;
+    this.generator = generator;
+  }
+
+  // the size of the file for an r x c maze, in bytes
+  public static long bytes(int r, int c) {
+    return HEADER + 16L * GridGraph.words(r * c);
+  }
+
+  // writes a maze, with the seed and label of the generator that made it, over whatever is
+  // at path
+  public static void write(Path path, GridGraph grid, long seed, String generator)
+          throws IOException {
+    try (Writer writer = new Writer(path, grid.r, grid.c, seed, generator)) {
+      writer.east.put(grid.eastWords().duplicate().clear());
+      writer.south.put(grid.southWords().duplicate().clear());
+    }
+  }
+
+  // writes an r x c maze into a file a row at a time, then flushes it to disk on close
+  // rows can come in any order, and the walls of a row that never comes stay up
+  public static class Writer implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final LongBuffer east;
+    private final LongBuffer south;
+    private final int c;
+
+    // makes the file (replacing whatever is at path) and writes the header
+    public Writer(Path path, int r, int c, long seed, String generator) throws IOException {
+      GridGraph.checkSize(r, c);
+      byte[] label = generator.getBytes(StandardCharsets.US_ASCII);
+      if (label.length > MAX_LABEL) {
+        throw new IllegalArgumentException("Generator label is longer than " + MAX_LABEL
+                + " characters: " + generator);
+      }
+      this.c = c;
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      this.map = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, MazeFile.bytes(r, c));
+      this.map.order(ByteOrder.LITTLE_ENDIAN);
+      this.map.put(MAGIC);
+      this.map.putInt(VERSION);
+      this.map.putInt(r);
+      this.map.putInt(c);
+      this.map.putLong(seed);
+      this.map.put((byte) label.length);
+      this.map.put(label);
+
+      int words = GridGraph.words(r * c);
+      this.east = this.map.slice(HEADER, words * 8).order(ByteOrder.LITTLE_ENDIAN)
+              .asLongBuffer();
+      this.south = this.map.slice(HEADER + words * 8, words * 8)
+              .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    // writes row y, where bit x of eastRow (southRow) is set if there is a passage east
+    // (south) of column x, the way EllerGenerator hands out its rows
+    public void row(int y, long[] eastRow, long[] southRow) {
+      Writer.copy(eastRow, this.east, y * this.c, this.c);
+      Writer.copy(southRow, this.south, y * this.c, this.c);
+    }
+
+    // ors the first n bits of row into the bitset bits, starting at bit from
+    // a row rarely starts on a word boundary, so each word of it is split over two
+    private static void copy(long[] row, LongBuffer bits, int from, int n) {
+      int shift = from & 63;
+      for (int w = 0; w < GridGraph.words(n); w++) {
+        long word = row[w];
+        if (n - 64 * w < 64) {
+          word &= (1L << (n - 64 * w)) - 1;
+        }
+        int to = (from >>> 6) + w;
+        if (word != 0) {
+          bits.put(to, bits.get(to) | word << shift);
+          if (shift != 0 && word >>> (64 - shift) != 0) {
+            bits.put(to + 1, bits.get(to + 1) | word >>> (64 - shift));
+          }
+        }
+      }
+    }
+
+    // flushes the file to disk and closes it
+    @Override
+    public void close() throws IOException {
+      this.map.force();
+      this.channel.close();
+    }
+  }
+
+  // opens a maze written by write, mapped read only
+  public static MazeFile open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER) {
+        throw new IOException(path + " is not a maze file, it is too short for a header");
+      }
+      MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      map.order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < MAGIC.length; i++) {
+        if (map.get(i) != MAGIC[i]) {
+          throw new IOException(path + " is not a maze file");
+        }
+      }
+      int version = map.getInt(4);
+      if (version != VERSION) {
+        throw new IOException(path + " has format version " + version + ", only version "
+                + VERSION + " can be read");
+      }
+      int r = map.getInt(8);
+      int c = map.getInt(12);
+      if (r < 1 || c < 1 || (long) r * c * 2 > Integer.MAX_VALUE) {
+        throw new IOException(path + " has a bad size, " + r + "x" + c);
+      }
+      if (size != MazeFile.bytes(r, c)) {
+        throw new IOException(path + " should be " + MazeFile.bytes(r, c) + " bytes for a "
+                + r + "x" + c + " maze, it is " + size);
+      }
+      long seed = map.getLong(16);
+      int length = map.get(24);
+      if (length < 0 || length > MAX_LABEL) {
+        throw new IOException(path + " has a bad generator label length, " + length);
+      }
+      byte[] label = new byte[length];
+      map.get(25, label);
+
+      int words = GridGraph.words(r * c);
+      LongBuffer east = map.slice(HEADER, words * 8).order(ByteOrder.LITTLE_ENDIAN)
+              .asLongBuffer();
+      LongBuffer south = map.slice(HEADER + words * 8, words * 8)
+              .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+      // the grid trusts its bits, so a passage out of the maze would lead a search off it
+      for (int y = 0; y < r; y++) {
+        if ((east.get((y * c + c - 1) >>> 6) & 1L << (y * c + c - 1)) != 0) {
+          throw new IOException(path + " has a passage east out of row " + y);
+        }
+      }
+      if (MazeFile.anySet(east, r * c, words * 64)) {
+        throw new IOException(path + " has passages past its last cell");
+      }
+      if (MazeFile.anySet(south, (r - 1) * c, words * 64)) {
+        throw new IOException(path + " has a passage south out of its last row");
+      }
+      return new MazeFile(new GridGraph(r, c, east, south), seed,
+              new String(label, StandardCharsets.US_ASCII));
+    }
+  }
+
+  // checks if any of bits from to to (exclusive) is set
+  private static boolean anySet(LongBuffer bits, int from, int to) {
+    for (int w = from >>> 6; w < to >>> 6; w++) {
+      long word = bits.get(w);
+      if (w == from >>> 6) {
+        word &= -1L << from;
+      }
+      if (word != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,90 @@
+package Structures;
+
+// answers "where is the smallest value in values[l..r]" in constant time, ties going to
+// the leftmost, after a build that is linear apart from a small table over blocks
+// the values are cut into blocks of 64. inside a block, each position keeps a bit mask of
+// the positions up to it whose value is no bigger than anything after them (the stack a
+// running minimum would keep), so a query inside one block is a mask and a trailing zero
+// count. whole blocks in between are covered by a sparse table over the block minima
+// the values are not copied, and must not change while the index is in use
+public class RangeMin {
+  private static final int BLOCK = 64;
+
+  private final int[] values;
+  private final long[] stacks;
+  // table[k][b] is where the smallest value of blocks b until b + 2^k is
+  private final int[][] table;
+
+  public RangeMin(int[] values) {
+    this.values = values;
+    int n = values.length;
+    this.stacks = new long[n];
+    int blocks = (n + BLOCK - 1) / BLOCK;
+    int levels = 1;
+    while (1 << levels <= blocks) {
+      levels++;
+    }
+    this.table = new int[levels][];
+    this.table[0] = new int[blocks];
+
+    long stack = 0;
+    for (int i = 0; i < n; i++) {
+      int start = i & -BLOCK;
+      if (i == start) {
+        stack = 0;
+      }
+      // drop the positions that are bigger than this one, from the newest down
+      while (stack != 0 && values[start + 63 - Long.numberOfLeadingZeros(stack)] > values[i]) {
+        stack &= ~Long.highestOneBit(stack);
+      }
+      stack |= 1L << (i - start);
+      this.stacks[i] = stack;
+      if (i == n - 1 || i - start == BLOCK - 1) {
+        // the bottom of the stack is the smallest of the whole block
+        this.table[0][i / BLOCK] = start + Long.numberOfTrailingZeros(stack);
+      }
+    }
+    for (int k = 1; k < levels; k++) {
+      int half = 1 << (k - 1);
+      this.table[k] = new int[blocks - (1 << k) + 1];
+      for (int b = 0; b < this.table[k].length; b++) {
+        this.table[k][b] = this.smaller(this.table[k - 1][b], this.table[k - 1][b + half]);
+      }
+    }
+  }
+
+  // the number of values
+  public int size() {
+    return this.values.length;
+  }
+
+  // where the smallest value in values[l..r] is, both ends included
+  public int min(int l, int r) {
+    if (l > r || l < 0 || r >= this.values.length) {
+      throw new IndexOutOfBoundsException("Range [" + l + ", " + r + "] is not in [0, "
+              + this.values.length + ")");
+    }
+    int bl = l / BLOCK;
+    int br = r / BLOCK;
+    if (bl == br) {
+      return this.inBlock(l, r);
+    }
+    int best = this.inBlock(l, bl * BLOCK + BLOCK - 1);
+    if (br - bl > 1) {
+      int k = 31 - Integer.numberOfLeadingZeros(br - bl - 1);
+      best = this.smaller(best,
+              this.smaller(this.table[k][bl + 1], this.table[k][br - (1 << k)]));
+    }
+    return this.smaller(best, this.inBlock(br * BLOCK, r));
+  }
+
+  // where the smallest value in values[l..r] is, both in the same block
+  private int inBlock(int l, int r) {
+    return l + Long.numberOfTrailingZeros(this.stacks[r] >>> (l % BLOCK));
+  }
+
+  // the position of the smaller of two values, i before j, the first one on a tie
+  private int smaller(int i, int j) {
+    return this.values[j] < this.values[i] ? j : i;
+  }
+}
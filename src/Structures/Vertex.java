@@ -38,7 +38,32 @@ public class Vertex {
 
   @Override
   // generates hashcode for a vertex
+  // only the position is hashed: equal vertices share a position, and two vertices
+  // at one position are rare enough that the color is not worth mixing in
   public int hashCode() {
-    return this.p.x * 100000000 + this.p.y * 3;
+    return Vertex.hash(this.p);
+  }
+
+  // mixes both coordinates of a posn into a well spread hash
+  public static int hash(Posn p) {
+    return Vertex.mix(Vertex.pack(p));
+  }
+
+  // packs a posn into one int: x times the 32-bit golden ratio, plus y
+  // multiples of the golden ratio stay far apart, so no two cells of any grid up to
+  // tens of thousands of cells a side pack to the same int
+  static int pack(Posn p) {
+    return p.x * 0x9E3779B9 + p.y;
+  }
+
+  // the murmur3 finalizer: every input bit affects every output bit, and it is a
+  // bijection, so distinct packed posns keep distinct hashes
+  static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h;
   }
 }